@@ -0,0 +1,48 @@
+package net.javaguides.springboot.benchmark;
+
+import net.javaguides.springboot.SpringBootTestingApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Boots the application without a web server on a private in-memory H2 database
+// and fills the employees table for the benchmarks.
+final class BenchmarkApplication {
+
+    private static final int SEED_BATCH = 10_000;
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String database, String... properties){
+
+        return new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+    }
+
+    // Plain JDBC batches, so seeding a million rows takes seconds rather than minutes.
+    static void seed(ConfigurableApplicationContext context, int rows){
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        for (int from = 1; from <= rows; from += SEED_BATCH){
+            List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+            for (long id = from; id < Math.min(from + SEED_BATCH, rows + 1); id++){
+                batch.add(new Object[]{id, "First" + id, "Last" + (id % 1000), "employee" + id + "@example.com"});
+            }
+            jdbcTemplate.batchUpdate("insert into employees (id, first_name, last_name, email, version) values (?, ?, ?, ?, 0)", batch);
+        }
+
+        // keep the pooled-lo id generator above the seeded ids
+        jdbcTemplate.update("update employees_seq set next_val = ?", rows + 1);
+    }
+}
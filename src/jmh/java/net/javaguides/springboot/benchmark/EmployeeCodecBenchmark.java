@@ -0,0 +1,103 @@
+package net.javaguides.springboot.benchmark;
+
+import net.javaguides.springboot.config.HttpMessageConverterConfig;
+import net.javaguides.springboot.model.Employee;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Encoding and decoding of employee lists through the same HTTP message converters the list
+// endpoints negotiate between, JSON against the binary formats. The encoded size of each
+// format is printed when its trial starts.
+//   mvn -Pbenchmarks test-compile exec:exec -Djmh.args="EmployeeCodecBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeCodecBenchmark {
+
+    private static final Type EMPLOYEE_LIST = new ParameterizedTypeReference<List<Employee>>() {}.getType();
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    private String format;
+
+    @Param({"50", "500", "10000"})
+    private int listSize;
+
+    private GenericHttpMessageConverter<Object> converter;
+    private MediaType mediaType;
+
+    private List<Employee> employees;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+
+        HttpMessageConverterConfig config = new HttpMessageConverterConfig(Jackson2ObjectMapperBuilder.json());
+
+        switch (format){
+            case "json":
+                converter = new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+                mediaType = MediaType.APPLICATION_JSON;
+                break;
+            case "cbor":
+                converter = config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+                mediaType = MediaType.valueOf("application/cbor");
+                break;
+            case "smile":
+                converter = config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+                mediaType = MediaType.valueOf("application/x-jackson-smile");
+                break;
+            default:
+                converter = config.protobufHttpMessageConverter();
+                mediaType = MediaType.valueOf("application/x-protobuf");
+        }
+
+        Instant updatedAt = Instant.parse("2024-01-01T00:00:00Z");
+
+        employees = new ArrayList<>(listSize);
+        for (long id = 1; id <= listSize; id++){
+            employees.add(Employee.builder()
+                    .id(id)
+                    .firstName("First" + id)
+                    .lastName("Last" + id)
+                    .email("employee" + id + "@example.com")
+                    .version(0L)
+                    .updatedAt(updatedAt)
+                    .build());
+        }
+
+        encoded = serialize();
+
+        System.out.printf("%n%s, %d employees: %d bytes (%.1f per employee)%n",
+                format, listSize, encoded.length, (double) encoded.length / listSize);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(employees, EMPLOYEE_LIST, mediaType, outputMessage);
+
+        return outputMessage.getBodyAsBytes();
+    }
+
+    @Benchmark
+    public Object deserialize() throws IOException {
+        return converter.read(EMPLOYEE_LIST, null, new MockHttpInputMessage(encoded));
+    }
+}
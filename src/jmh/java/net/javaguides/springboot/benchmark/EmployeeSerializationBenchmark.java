@@ -0,0 +1,65 @@
+package net.javaguides.springboot.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import net.javaguides.springboot.model.Employee;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson encoding and decoding of employee lists, as done by the list endpoints.
+//   mvn -Pbenchmarks test-compile exec:exec -Djmh.args="EmployeeSerializationBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeSerializationBenchmark {
+
+    @Param({"50", "500", "10000"})
+    private int listSize;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+
+    private List<Employee> employees;
+    private byte[] json;
+
+    @Setup
+    public void setup() throws IOException {
+
+        // configured the same way as the ObjectMapper Spring Boot builds for the MVC converters
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Employee.class));
+        reader = objectMapper.readerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Employee.class));
+
+        employees = new ArrayList<>(listSize);
+        for (long id = 1; id <= listSize; id++){
+            employees.add(Employee.builder()
+                    .id(id)
+                    .firstName("First" + id)
+                    .lastName("Last" + id)
+                    .email("employee" + id + "@example.com")
+                    .version(0L)
+                    .build());
+        }
+
+        json = writer.writeValueAsBytes(employees);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(employees);
+    }
+
+    @Benchmark
+    public List<Employee> deserialize() throws IOException {
+        return reader.readValue(json);
+    }
+}
@@ -0,0 +1,92 @@
+package net.javaguides.springboot.benchmark;
+
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Service and repository hot paths at different table sizes.
+//   mvn -Pbenchmarks test-compile exec:exec -Djmh.args="EmployeeServiceBenchmark -p rows=1000"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class EmployeeServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private EmployeeRepository employeeRepository;
+
+    private final AtomicLong created = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup(){
+        context = BenchmarkApplication.start("service" + rows);
+        BenchmarkApplication.seed(context, rows);
+        employeeService = context.getBean(EmployeeService.class);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        context.close();
+    }
+
+    @Benchmark
+    public Employee saveEmployee(){
+        long n = created.incrementAndGet();
+        return employeeService.saveEmployee(Employee.builder()
+                .firstName("Bench" + n)
+                .lastName("Mark")
+                .email("bench" + n + "@example.com")
+                .build());
+    }
+
+    // Goes through the service cache, so small tables end up served from memory.
+    @Benchmark
+    public Optional<Employee> getEployeeById(){
+        return employeeService.getEployeeById(randomId());
+    }
+
+    // The same lookup below the service cache. Hibernate's second-level cache answers it once the
+    // employee was loaded, a primary key SELECT only runs on a miss: for ids not read yet or beyond
+    // app.hibernate.cache.employee.max-entries.
+    @Benchmark
+    public Optional<Employee> findById(){
+        return employeeRepository.findById(randomId());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Employee> getAllEmployees(){
+        return employeeService.getAllEmployees();
+    }
+
+    @Benchmark
+    public EmployeePage getEmployeesPage(){
+        return employeeService.getEmployeesPage(randomId(), 50);
+    }
+
+    @Benchmark
+    public List<Employee> searchEmployees(){
+        long id = randomId();
+        return employeeService.searchEmployees("First" + id, "Last" + (id % 1000));
+    }
+
+    private long randomId(){
+        return ThreadLocalRandom.current().nextLong(1, rows + 1);
+    }
+}
@@ -0,0 +1,73 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+// V1 skips an employees table that hibernate.ddl-auto=update built before Flyway took over
+// (baseline-on-migrate starts such databases at version 0). This brings that table to the V1
+// shape: the version column, the uk_employees_email unique index that the duplicate email
+// handling relies on, and an employees_seq ahead of the existing ids. Every step checks the
+// metadata first, MySQL has no "add column if not exists", so databases that V1 created are
+// left as they are.
+// Adding the index fails while the table still holds duplicate emails, those have to be
+// resolved by hand before the upgrade.
+public class V4__upgrade_hibernate_managed_employees extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+
+        Connection connection = context.getConnection();
+        DatabaseMetaData metaData = connection.getMetaData();
+        String table = identifier(metaData, "employees");
+
+        try (Statement statement = connection.createStatement()) {
+
+            if (!hasColumn(connection, metaData, table, "version")){
+                statement.execute("alter table employees add column version bigint not null default 0");
+            }
+
+            if (!hasUniqueIndex(connection, metaData, table, "uk_employees_email")){
+                statement.execute("alter table employees add constraint uk_employees_email unique (email)");
+            }
+
+            // ddl-auto created employees_seq at 1 on tables with IDENTITY ids.
+            statement.executeUpdate("update employees_seq set next_val = (select coalesce(max(id), 0) + 1 from employees) "
+                    + "where next_val <= (select coalesce(max(id), 0) from employees)");
+        }
+    }
+
+    private static boolean hasColumn(Connection connection, DatabaseMetaData metaData, String table, String column) throws SQLException {
+
+        try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(), table,
+                identifier(metaData, column))) {
+            return columns.next();
+        }
+    }
+
+    // By prefix: H2 names the index of a constraint after it, e.g. UK_EMPLOYEES_EMAIL_INDEX_7.
+    private static boolean hasUniqueIndex(Connection connection, DatabaseMetaData metaData, String table, String name) throws SQLException {
+
+        try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, true, true)) {
+            while (indexes.next()){
+                String indexName = indexes.getString("INDEX_NAME");
+                if (indexName != null && indexName.toLowerCase(Locale.ROOT).startsWith(name)){
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static String identifier(DatabaseMetaData metaData, String name) throws SQLException {
+
+        return metaData.storesUpperCaseIdentifiers() ? name.toUpperCase(Locale.ROOT) : name;
+    }
+}
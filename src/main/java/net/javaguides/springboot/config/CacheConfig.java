@@ -0,0 +1,14 @@
+package net.javaguides.springboot.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caffeine backed caches, sized through spring.cache.caffeine.spec.
+// Hit/miss/eviction counters are published as cache.* metrics on /actuator/metrics.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String EMPLOYEES_CACHE = "employees";
+
+}
@@ -0,0 +1,46 @@
+package net.javaguides.springboot.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot.limit.AdaptiveConcurrencyLimiter;
+import net.javaguides.springboot.limit.ConcurrencyLimitFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+
+import java.util.Set;
+
+// Adaptive concurrency limits in front of /api/*, actuator endpoints are never shed.
+// Runs right after the http.server.requests metrics filter, so shed requests still show up there.
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "app.concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.concurrency-limit.read.initial:50}") int readInitial,
+            @Value("${app.concurrency-limit.read.min:4}") int readMin,
+            @Value("${app.concurrency-limit.read.max:500}") int readMax,
+            @Value("${app.concurrency-limit.write.initial:20}") int writeInitial,
+            @Value("${app.concurrency-limit.write.min:2}") int writeMin,
+            @Value("${app.concurrency-limit.write.max:200}") int writeMax,
+            @Value("${app.concurrency-limit.excluded-paths:/api/employees/export,/api/employees/import,/api/employees/bulk-update,/api/employees/bulk-delete}") Set<String> excludedPaths) {
+
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(
+                new AdaptiveConcurrencyLimiter("read", readInitial, readMin, readMax),
+                new AdaptiveConcurrencyLimiter("write", writeInitial, writeMin, writeMax),
+                excludedPaths,
+                meterRegistry);
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+
+}
@@ -0,0 +1,48 @@
+package net.javaguides.springboot.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot.metrics.SlowQueryLogListener;
+import net.javaguides.springboot.metrics.StatementCountFilter;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+// Wraps the DataSource in a datasource-proxy so every statement is counted per thread
+// (read back per request by StatementCountFilter) and slow ones are logged with their parameters.
+@Configuration
+@Profile("!reactive")
+public class DataSourceProxyConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(@Value("${app.sql.slow-query-threshold-ms:200}") long slowQueryThresholdMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // routing and lazy proxies delegate to pools that are wrapped themselves
+                if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource
+                        || bean instanceof DelegatingDataSource || bean instanceof AbstractRoutingDataSource){
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create((DataSource) bean)
+                        .name(beanName)
+                        .countQuery()
+                        .listener(new SlowQueryLogListener(slowQueryThresholdMs))
+                        .build();
+            }
+        };
+    }
+
+    @Bean
+    public StatementCountFilter statementCountFilter(MeterRegistry meterRegistry) {
+        return new StatementCountFilter(meterRegistry);
+    }
+
+}
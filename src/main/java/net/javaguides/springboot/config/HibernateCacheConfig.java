@@ -0,0 +1,75 @@
+package net.javaguides.springboot.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import net.javaguides.springboot.model.Employee;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Hibernate second-level cache on Caffeine's JCache provider, below the service level "employees" cache:
+// the Employee entity region and the query results region (findByEmail and the JPQL name queries), sized
+// and expired through app.hibernate.cache.*. The update timestamps region tells the query cache which
+// tables changed since a result was cached, so it is never evicted.
+// Single deletes go through find/remove and evict only their entry; bulk JPQL and Criteria statements
+// (deleteEmployeesByIds, updateEmployees) invalidate the whole Employee region and the cached queries.
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "app.hibernate.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class HibernateCacheConfig {
+
+    public static final String EMPLOYEE_REGION = Employee.class.getName();
+
+    // A cache manager per application context, tests run several of them side by side.
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${app.hibernate.cache.employee.max-entries:10000}") long employeeMaxEntries,
+                                              @Value("${app.hibernate.cache.employee.ttl-seconds:600}") long employeeTtlSeconds,
+                                              @Value("${app.hibernate.cache.query.max-entries:1000}") long queryMaxEntries,
+                                              @Value("${app.hibernate.cache.query.ttl-seconds:300}") long queryTtlSeconds) {
+
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        cacheManager.createCache(EMPLOYEE_REGION, region(employeeMaxEntries, employeeTtlSeconds));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, region(queryMaxEntries, queryTtlSeconds));
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, new CaffeineConfiguration<>());
+
+        return cacheManager;
+    }
+
+    // Regions that are not created above are a startup failure rather than an unbounded default cache.
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, JCacheRegionFactory.class.getName());
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+
+    private static CaffeineConfiguration<Object, Object> region(long maxEntries, long ttlSeconds){
+
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        return configuration;
+    }
+
+}
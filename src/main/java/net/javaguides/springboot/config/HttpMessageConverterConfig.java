@@ -0,0 +1,57 @@
+package net.javaguides.springboot.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import net.javaguides.springboot.converter.EmployeeProtobufHttpMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+// Binary encodings next to JSON, picked by Accept and Content-Type: application/cbor,
+// application/x-jackson-smile (any payload) and application/x-protobuf (employees and lists of them).
+// All are built from Spring Boot's Jackson builder, so they share the spring.jackson.* settings
+// of the JSON converter. JSON stays first, it is still what a request without Accept gets.
+@Configuration
+@Profile("!reactive")
+public class HttpMessageConverterConfig implements WebMvcConfigurer {
+
+    private Jackson2ObjectMapperBuilder builder;
+
+    public HttpMessageConverterConfig(Jackson2ObjectMapperBuilder builder) {
+        this.builder = builder;
+    }
+
+    // These two take the place of Spring MVC's default CBOR and Smile converters, behind JSON.
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder){
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder){
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+    }
+
+    // Not a bean: converter beans are put in front of the defaults, which would make protobuf
+    // the answer to requests that accept anything.
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(protobufHttpMessageConverter());
+    }
+
+    public EmployeeProtobufHttpMessageConverter protobufHttpMessageConverter(){
+
+        ProtobufMapper mapper = new ProtobufMapper();
+        builder.configure(mapper);
+
+        return new EmployeeProtobufHttpMessageConverter(mapper);
+    }
+}
@@ -0,0 +1,53 @@
+package net.javaguides.springboot.controller;
+
+import net.javaguides.springboot.dto.EmployeeBulkResult;
+import net.javaguides.springboot.dto.EmployeeBulkUpdate;
+import net.javaguides.springboot.service.EmployeeBulkService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Reorganisations in one request instead of a PUT or DELETE per employee. Both run as one statement
+// per chunk of app.employees.bulk.chunk-size employees and answer with the affected row count.
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/employees")
+public class EmployeeBulkController {
+
+    private EmployeeBulkService employeeBulkService;
+
+    private int maxIds;
+
+    public EmployeeBulkController(EmployeeBulkService employeeBulkService,
+                                  @Value("${app.employees.bulk.max-ids:100000}") int maxIds) {
+        this.employeeBulkService = employeeBulkService;
+        this.maxIds = maxIds;
+    }
+
+    // Picks the employees by ids or by email domain, e.g. a domain change:
+    // {"emailDomain": "old.com", "newEmailDomain": "new.com"}. An email that would collide is a 409.
+    @PostMapping("bulk-update")
+    public ResponseEntity<EmployeeBulkResult> updateEmployees(@RequestBody EmployeeBulkUpdate update){
+
+        if (update.getIds() != null && update.getIds().size() > maxIds){
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(employeeBulkService.updateEmployees(update));
+    }
+
+
+    // The body lists the ids; ids without an employee are skipped and not counted.
+    @PostMapping("bulk-delete")
+    public ResponseEntity<EmployeeBulkResult> deleteEmployees(@RequestBody List<Long> ids){
+
+        if (ids.isEmpty() || ids.size() > maxIds || ids.contains(null)){
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(employeeBulkService.deleteEmployees(ids));
+    }
+}
@@ -1,21 +1,84 @@
 package net.javaguides.springboot.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import net.javaguides.springboot.dto.EmployeeBatch;
+import net.javaguides.springboot.dto.EmployeeFieldsPage;
+import net.javaguides.springboot.dto.EmployeeImportSummary;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.dto.EmployeeSuggestion;
+import net.javaguides.springboot.exception.PreconditionFailedException;
+import net.javaguides.springboot.exception.VersionConflictException;
 import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.search.EmployeeSuggestIndex;
+import net.javaguides.springboot.service.EmployeeImportService;
 import net.javaguides.springboot.service.EmployeeService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
     private EmployeeService employeeService;
 
-    public EmployeeController(EmployeeService employeeService) {
+    private EmployeeImportService employeeImportService;
+
+    private EmployeeSuggestIndex employeeSuggestIndex;
+
+    private int defaultPageSize;
+    private int maxPageSize;
+    private int maxBatchSize;
+    private int maxIds;
+    private int maxQueryIds;
+    private int maxSuggestions;
+
+    // Export writes one employee at a time, the generator flushes whenever its buffer is full.
+    private ObjectWriter exportWriter;
+
+    public EmployeeController(EmployeeService employeeService,
+                              EmployeeImportService employeeImportService,
+                              EmployeeSuggestIndex employeeSuggestIndex,
+                              ObjectMapper objectMapper,
+                              @Value("${app.employees.page.default-size:50}") int defaultPageSize,
+                              @Value("${app.employees.page.max-size:500}") int maxPageSize,
+                              @Value("${app.employees.batch.max-size:5000}") int maxBatchSize,
+                              @Value("${app.employees.ids.max-count:1000}") int maxIds,
+                              @Value("${app.employees.ids.max-query-count:500}") int maxQueryIds,
+                              @Value("${app.employees.suggest.max-limit:50}") int maxSuggestions) {
         this.employeeService = employeeService;
+        this.employeeImportService = employeeImportService;
+        this.employeeSuggestIndex = employeeSuggestIndex;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxBatchSize = maxBatchSize;
+        this.maxIds = maxIds;
+        this.maxQueryIds = maxQueryIds;
+        this.maxSuggestions = maxSuggestions;
+        this.exportWriter = objectMapper.writerFor(Employee.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @PostMapping
@@ -25,49 +88,343 @@ public class EmployeeController {
     }
 
 
+    @PostMapping("batch")
+    public ResponseEntity<List<Employee>> createEmployees(@RequestBody List<Employee> employees){
+
+        if (employees.isEmpty() || employees.size() > maxBatchSize){
+            return ResponseEntity.badRequest().build();
+        }
+
+        return new ResponseEntity<List<Employee>>(employeeService.saveEmployees(employees), HttpStatus.CREATED);
+    }
+
+
+    // CSV with a header row naming the firstName, lastName and email columns. The body is parsed
+    // while it is read, invalid and duplicate rows are skipped and reported in the summary.
+    @PostMapping(value = "import", consumes = "text/csv")
+    public EmployeeImportSummary importEmployees(InputStream csv) throws IOException {
+
+        return employeeImportService.importEmployees(csv);
+    }
+
+
+    // Keyset pagination: "after" is the id of the last employee already seen,
+    // the link to the next page is returned in the Link header. The page ETag covers the
+    // ids and versions it contains, a matching If-None-Match gets a 304 without a body.
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<Employee> getAllEmployees(){
-        return employeeService.getAllEmployees();
+    public ResponseEntity<List<Employee>> getAllEmployees(@RequestParam(value = "after", defaultValue = "0") long after,
+                                                          @RequestParam(value = "size", required = false) Integer size){
+
+        int pageSize = pageSize(size);
+
+        EmployeePage page = employeeService.getEmployeesPage(after, pageSize);
+
+        ResponseEntity.BodyBuilder response = pageResponse(page.getNextCursor(), pageSize)
+                .eTag(pageETag(page));
+
+        page.getEmployees().stream()
+                .map(Employee::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(Instant::compareTo)
+                .ifPresent(response::lastModified);
+
+        return response.body(page.getEmployees());
+    }
+
+
+    // Multi-get, e.g. ?ids=7,3,12: the employees in the requested order plus the ids that do not exist,
+    // read with one IN query per 500 ids instead of a request and a findById per id.
+    // The ids share the request line with the path, Tomcat refuses it beyond server.max-http-header-size
+    // (8 KB), so the query string takes fewer ids than POST lookup.
+    @GetMapping(params = "ids")
+    public ResponseEntity<EmployeeBatch> getEmployeesByIds(@RequestParam("ids") List<Long> ids){
+
+        return employeesByIds(ids, maxQueryIds);
+    }
+
+
+    // The same multi-get with the ids as a JSON array in the body, e.g. [7, 3, 12], for longer lists.
+    @PostMapping("lookup")
+    public ResponseEntity<EmployeeBatch> lookupEmployeesByIds(@RequestBody List<Long> ids){
+
+        return employeesByIds(ids, maxIds);
     }
 
 
+    // Sparse fieldset, e.g. ?fields=id,email: only those columns are selected and serialized.
+    @GetMapping(params = {"fields", "!ids"})
+    public ResponseEntity<List<Map<String, Object>>> getAllEmployeeFields(@RequestParam(value = "after", defaultValue = "0") long after,
+                                                                          @RequestParam(value = "size", required = false) Integer size,
+                                                                          @RequestParam("fields") List<String> fields){
+
+        int pageSize = pageSize(size);
+
+        EmployeeFieldsPage page = employeeService.getEmployeesPage(after, pageSize, fields);
+
+        return pageResponse(page.getNextCursor(), pageSize).body(page.getEmployees());
+    }
+
+
+    // Every employee, written to the response while the rows are read: a JSON array by default,
+    // one employee per line when application/x-ndjson is accepted.
+    @GetMapping(value = "export", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportEmployees(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
+
+        boolean ndjson = acceptsNdjson(accept);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = exportWriter.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+                if (ndjson){
+                    generator.setRootValueSeparator(null);
+                } else {
+                    generator.writeStartArray();
+                }
+
+                employeeService.exportEmployees(employee -> {
+                    try {
+                        exportWriter.writeValue(generator, employee);
+                        if (ndjson){
+                            generator.writeRaw('\n');
+                        }
+                    } catch (IOException ex){
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+
+                if (!ndjson){
+                    generator.writeEndArray();
+                }
+            } catch (UncheckedIOException ex){
+                throw ex.getCause();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+
+    // Unlike the single result name queries, returns every employee with that name.
+    @GetMapping("search")
+    public List<Employee> searchEmployees(@RequestParam("firstName") String firstName,
+                                          @RequestParam("lastName") String lastName){
+
+        return employeeService.searchEmployees(firstName, lastName);
+    }
+
+
+    // Typeahead: employees whose first name, last name or email start with the query, tolerating
+    // a typo or two. Answered from the in-memory index, the database is not queried.
+    @GetMapping("suggest")
+    public List<EmployeeSuggestion> suggestEmployees(@RequestParam("q") String query,
+                                                     @RequestParam(value = "limit", defaultValue = "10") int limit){
+
+        return employeeSuggestIndex.suggest(query, Math.min(Math.max(limit, 1), maxSuggestions));
+    }
+
+
+    // With If-None-Match only the version is looked up first: when it still matches the
+    // answer is a 304 and the employee is neither loaded nor serialized.
     @GetMapping("{id}")
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable long id){
+    public ResponseEntity<Employee> getEmployeeById(@PathVariable long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                    WebRequest request){
+
+        if (ifNoneMatch != null){
+            Optional<Long> version = employeeService.getEmployeeVersion(id);
+
+            if (version.isEmpty()){
+                return ResponseEntity.notFound().build();
+            }
+            if (request.checkNotModified(eTag(version.get()))){
+                return null;
+            }
+        }
 
         return employeeService.getEployeeById(id)
+                .map(employee -> employeeResponse(employee).body(employee))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+
+    @GetMapping(value = "{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getEmployeeFieldsById(@PathVariable long id,
+                                                                     @RequestParam("fields") List<String> fields){
+
+        return employeeService.getEmployeeFieldsById(id, fields)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
 
+    // An If-Match that does not name the current version is a 412, also when the employee
+    // is changed by someone else between the check and the update. The version is checked against
+    // the row read in the update's transaction, not against a cached copy.
     @PutMapping("{id}")
-    public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long employeeId, @RequestBody Employee employee){
+    public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long employeeId,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @RequestBody Employee employee){
+
+        List<Long> expectedVersions = ifMatch == null ? null : ifMatchVersions(ifMatch);
 
-        return employeeService.getEployeeById(employeeId)
-                .map(employeeFromDB -> {
+        try {
+            return employeeService.updateEmployee(employeeId, employee, expectedVersions)
+                    .map(updatedEmployee -> employeeResponse(updatedEmployee).body(updatedEmployee))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (VersionConflictException ex){
+            if (ifMatch != null){
+                throw new PreconditionFailedException(ex.getMessage(), ex);
+            }
+            throw ex;
+        }
+    }
 
-                    employeeFromDB.setEmail(employee.getEmail());
-                    employeeFromDB.setFirstName(employee.getFirstName());
-                    employeeFromDB.setLastName(employee.getLastName());
 
-                    Employee updatedEmployee = employeeService.updateEmployee(employeeFromDB);
-                    return new ResponseEntity<Employee>(updatedEmployee, HttpStatus.OK);
-                })
+
+    // Partial update: only the fields present in the body are changed. When the body
+    // carries a version it has to match the stored one, otherwise 409 is returned.
+    @PatchMapping("{id}")
+    public ResponseEntity<Employee> patchEmployee(@PathVariable("id") long employeeId, @RequestBody Employee changes){
+
+        return employeeService.patchEmployee(employeeId, changes)
+                .map(employee -> employeeResponse(employee).body(employee))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
 
 
+    // With If-Match the DELETE is conditional on the version, a different one is a 412.
+    // The delete itself tells a missing employee from one at another version, without a read before.
     @DeleteMapping("{id}")
-    public ResponseEntity<String> deleteEmployee(@PathVariable("id") long employeeId){
+    public ResponseEntity<Void> deleteEmployee(@PathVariable("id") long employeeId,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+
+        List<Long> expectedVersions = ifMatch == null ? null : ifMatchVersions(ifMatch);
+
+        if (expectedVersions == null){
+            return deleted(employeeService.deleteEmployee(employeeId));
+        }
+
+        PreconditionFailedException mismatch = new PreconditionFailedException("Employee " + employeeId
+                + " is not at any version of " + ifMatch);
+
+        for (Long version : expectedVersions){
+            try {
+                return deleted(employeeService.deleteEmployee(employeeId, version));
+            } catch (PreconditionFailedException ex){
+                mismatch = ex;
+            }
+        }
+
+        throw mismatch;
+    }
 
-        employeeService.deleteEmployee(employeeId);
 
-        return new ResponseEntity<String>("Employee deleted successfully!", HttpStatus.OK);
+    private static ResponseEntity<Void> deleted(boolean deleted){
 
+        if (deleted){
+            return ResponseEntity.noContent().build();
+        }
+
+        return ResponseEntity.notFound().build();
     }
 
 
+    // Strong ETag from the version, Last-Modified from updatedAt.
+    private static ResponseEntity.BodyBuilder employeeResponse(Employee employee){
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (employee.getVersion() != null){
+            response.eTag(eTag(employee.getVersion()));
+        }
+        if (employee.getUpdatedAt() != null){
+            response.lastModified(employee.getUpdatedAt());
+        }
+
+        return response;
+    }
+
+    private static String eTag(long version){
+
+        return "\"" + version + "\"";
+    }
+
+    // Digest of the ids and versions in the page and of its cursor.
+    private static String pageETag(EmployeePage page){
+
+        StringBuilder content = new StringBuilder();
+
+        for (Employee employee : page.getEmployees()){
+            content.append(employee.getId()).append(':').append(employee.getVersion()).append(',');
+        }
+        content.append(page.getNextCursor());
+
+        return "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    // If-Match uses the strong comparison: the versions of the listed tags, null for "*" (any version).
+    // Weak or foreign tags name no version.
+    private static List<Long> ifMatchVersions(String ifMatch){
+
+        if (ifMatch.trim().equals("*")){
+            return null;
+        }
+
+        List<Long> versions = new ArrayList<>();
+
+        for (String tag : ifMatch.split(",")){
+            String trimmed = tag.trim();
+
+            if (trimmed.matches("\"\\d{1,18}\"")){
+                versions.add(Long.parseLong(trimmed.substring(1, trimmed.length() - 1)));
+            }
+        }
+
+        return versions;
+    }
+
+    private int pageSize(Integer size){
+
+        return size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    private ResponseEntity<EmployeeBatch> employeesByIds(List<Long> ids, int max){
+
+        if (ids.isEmpty() || ids.size() > max || ids.contains(null)){
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(employeeService.getEmployeesByIds(ids));
+    }
+
+    // The link to the next page keeps the other query parameters, fields included.
+    private static ResponseEntity.BodyBuilder pageResponse(Long nextCursor, int pageSize){
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (nextCursor != null){
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", nextCursor)
+                    .replaceQueryParam("size", pageSize)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+
+        return response;
+    }
+
+    private static boolean acceptsNdjson(String accept){
+
+        if (accept == null){
+            return false;
+        }
+
+        return MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+    }
 
 }
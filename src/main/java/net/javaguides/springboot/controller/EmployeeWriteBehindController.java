@@ -0,0 +1,101 @@
+package net.javaguides.springboot.controller;
+
+import net.javaguides.springboot.dto.EmployeeCreateStatus;
+import net.javaguides.springboot.exception.QueueFullException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeService;
+import net.javaguides.springboot.service.EmployeeWriteBehindService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+import java.util.Locale;
+
+// Asynchronous creates, only mapped when the write-behind queue is enabled. Clients opt in per request
+// with "Prefer: respond-async" (RFC 7240); without it POST /api/employees stays synchronous.
+// Requests with a Prefer header are all mapped here because a header condition only matches the exact
+// value, the ones that do not ask for respond-async are created synchronously like EmployeeController does.
+@RestController
+@Profile("!reactive")
+@ConditionalOnProperty(name = "app.employees.write-behind.enabled", havingValue = "true")
+@RequestMapping("/api/employees")
+public class EmployeeWriteBehindController {
+
+    private static final String RESPOND_ASYNC = "respond-async";
+
+    private EmployeeService employeeService;
+    private EmployeeWriteBehindService employeeWriteBehindService;
+
+    // Seconds until a flush made room in the queue, sent as Retry-After with a 429.
+    private long retryAfterSeconds;
+
+    public EmployeeWriteBehindController(EmployeeService employeeService,
+                                         EmployeeWriteBehindService employeeWriteBehindService,
+                                         @Value("${app.employees.write-behind.flush-interval-ms:200}") long flushIntervalMs) {
+        this.employeeService = employeeService;
+        this.employeeWriteBehindService = employeeWriteBehindService;
+        this.retryAfterSeconds = Math.max(1, (flushIntervalMs + 999) / 1000);
+    }
+
+    // 202 with the status URL in Location; a full queue is a 429, an email that is queued already a 409.
+    @PostMapping(headers = "Prefer")
+    public ResponseEntity<?> createEmployeeAsync(@RequestHeader("Prefer") List<String> preferences,
+                                                 @RequestBody Employee employee){
+
+        if (!respondAsync(preferences)){
+            return new ResponseEntity<Employee>(employeeService.saveEmployee(employee), HttpStatus.CREATED);
+        }
+
+        EmployeeCreateStatus status = employeeWriteBehindService.submit(employee);
+
+        return ResponseEntity.accepted()
+                .header("Preference-Applied", RESPOND_ASYNC)
+                .location(ServletUriComponentsBuilder.fromCurrentRequestUri()
+                        .path("/pending/{id}")
+                        .buildAndExpand(status.getId())
+                        .toUri())
+                .body(status);
+    }
+
+
+    // Statuses are kept for app.employees.write-behind.status-ttl-seconds, a 404 afterwards.
+    @GetMapping("pending/{id}")
+    public ResponseEntity<EmployeeCreateStatus> getCreateStatus(@PathVariable("id") String id){
+
+        return employeeWriteBehindService.getStatus(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+
+    // Preferences are comma separated, within one or across several Prefer headers, e.g.
+    // "respond-async, wait=5"; a preference may carry a value and parameters after "=" and ";",
+    // names are case-insensitive.
+    private static boolean respondAsync(List<String> headers){
+
+        for (String header : headers){
+            for (String preference : header.split(",")){
+                String name = preference.split("[=;]", 2)[0].trim();
+                if (RESPOND_ASYNC.equals(name.toLowerCase(Locale.ROOT))){
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+
+    @ExceptionHandler(QueueFullException.class)
+    public ResponseEntity<Void> queueFull(){
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .build();
+    }
+}
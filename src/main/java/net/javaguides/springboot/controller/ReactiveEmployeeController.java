@@ -0,0 +1,142 @@
+package net.javaguides.springboot.controller;
+
+import net.javaguides.springboot.model.ReactiveEmployee;
+import net.javaguides.springboot.service.ReactiveEmployeeService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// The /api/employees contract of EmployeeController on WebFlux, active with the "reactive" profile.
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/employees")
+public class ReactiveEmployeeController {
+
+    private ReactiveEmployeeService employeeService;
+
+    private int defaultPageSize;
+    private int maxPageSize;
+    private int maxBatchSize;
+
+    public ReactiveEmployeeController(ReactiveEmployeeService employeeService,
+                                      @Value("${app.employees.page.default-size:50}") int defaultPageSize,
+                                      @Value("${app.employees.page.max-size:500}") int maxPageSize,
+                                      @Value("${app.employees.batch.max-size:5000}") int maxBatchSize) {
+        this.employeeService = employeeService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<ReactiveEmployee> createEmployee(@RequestBody ReactiveEmployee employee){
+        return employeeService.saveEmployee(employee);
+    }
+
+
+    @PostMapping("batch")
+    public Mono<ResponseEntity<List<ReactiveEmployee>>> createEmployees(@RequestBody List<ReactiveEmployee> employees){
+
+        if (employees.isEmpty() || employees.size() > maxBatchSize){
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return employeeService.saveEmployees(employees)
+                .collectList()
+                .map(savedEmployees -> new ResponseEntity<List<ReactiveEmployee>>(savedEmployees, HttpStatus.CREATED));
+    }
+
+
+    // Keyset pagination: "after" is the id of the last employee already seen,
+    // the link to the next page is returned in the Link header.
+    @GetMapping
+    public Mono<ResponseEntity<List<ReactiveEmployee>>> getAllEmployees(@RequestParam(value = "after", defaultValue = "0") long after,
+                                                                @RequestParam(value = "size", required = false) Integer size,
+                                                                ServerHttpRequest request){
+
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+
+        return employeeService.getEmployeesPage(after, pageSize)
+                .map(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+                    if (page.getNextCursor() != null){
+                        String next = UriComponentsBuilder.fromHttpRequest(request)
+                                .replaceQueryParam("after", page.getNextCursor())
+                                .replaceQueryParam("size", pageSize)
+                                .toUriString();
+                        response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+                    }
+
+                    return response.body(page.getEmployees());
+                });
+    }
+
+
+    @GetMapping("search")
+    public Flux<ReactiveEmployee> searchEmployees(@RequestParam("firstName") String firstName,
+                                          @RequestParam("lastName") String lastName){
+
+        return employeeService.searchEmployees(firstName, lastName);
+    }
+
+
+    @GetMapping("{id}")
+    public Mono<ResponseEntity<ReactiveEmployee>> getEmployeeById(@PathVariable long id){
+
+        return employeeService.getEmployeeById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+
+    @PutMapping("{id}")
+    public Mono<ResponseEntity<ReactiveEmployee>> updateEmployee(@PathVariable("id") long employeeId, @RequestBody ReactiveEmployee employee){
+
+        return employeeService.getEmployeeById(employeeId)
+                .flatMap(employeeFromDB -> {
+
+                    ReactiveEmployee changedEmployee = ReactiveEmployee.builder()
+                            .id(employeeFromDB.getId())
+                            .email(employee.getEmail())
+                            .firstName(employee.getFirstName())
+                            .lastName(employee.getLastName())
+                            .version(employeeFromDB.getVersion())
+                            .build();
+
+                    return employeeService.updateEmployee(changedEmployee);
+                })
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+
+    // Partial update: only the fields present in the body are changed. When the body
+    // carries a version it has to match the stored one, otherwise 409 is returned.
+    @PatchMapping("{id}")
+    public Mono<ResponseEntity<ReactiveEmployee>> patchEmployee(@PathVariable("id") long employeeId, @RequestBody ReactiveEmployee changes){
+
+        return employeeService.patchEmployee(employeeId, changes)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+
+    @DeleteMapping("{id}")
+    public Mono<ResponseEntity<Void>> deleteEmployee(@PathVariable("id") long employeeId){
+
+        return employeeService.deleteEmployee(employeeId)
+                .map(deleted -> deleted ? ResponseEntity.noContent().<Void>build() : ResponseEntity.notFound().<Void>build());
+    }
+
+}
@@ -0,0 +1,141 @@
+package net.javaguides.springboot.converter;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.NativeProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import net.javaguides.springboot.model.Employee;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+// application/x-protobuf for Employee and List<Employee>, encoded by Jackson with the checked-in
+// static/protobuf/employee.proto, so there is no .proto compilation step. The file pins the field
+// numbers, an Employee property that is missing there fails the write instead of renumbering the
+// wire format. A list is sent as an EmployeeList message with one repeated "employees" field.
+public class EmployeeProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.valueOf("application/x-protobuf");
+
+    public static final String SCHEMA_LOCATION = "static/protobuf/employee.proto";
+
+    private final ObjectReader employeeReader;
+    private final ObjectWriter employeeWriter;
+
+    private final ObjectReader employeeListReader;
+    private final ObjectWriter employeeListWriter;
+
+    public EmployeeProtobufHttpMessageConverter(ProtobufMapper mapper) {
+        super(APPLICATION_PROTOBUF);
+
+        NativeProtobufSchema schema;
+
+        try {
+            schema = ProtobufSchemaLoader.std.loadNative(new ClassPathResource(SCHEMA_LOCATION).getURL());
+        } catch (IOException ex){
+            throw new IllegalStateException("Can not load the protobuf schema " + SCHEMA_LOCATION, ex);
+        }
+
+        ProtobufSchema employeeSchema = schema.forType("Employee");
+        ProtobufSchema employeeListSchema = schema.forType("EmployeeList");
+
+        this.employeeReader = mapper.readerFor(Employee.class).with(employeeSchema);
+        this.employeeWriter = mapper.writerFor(Employee.class).with(employeeSchema);
+        this.employeeListReader = mapper.readerFor(EmployeeList.class).with(employeeListSchema);
+        this.employeeListWriter = mapper.writerFor(EmployeeList.class).with(employeeListSchema);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Employee.class == clazz;
+    }
+
+    // Only the class of the value is known here, the element type of a list is checked by canWrite.
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return supports(clazz) || List.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : List.of();
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return isEmployeeType(type) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return isEmployeeType(type != null ? type : clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+
+        try {
+            if (isEmployeeList(type)){
+                EmployeeList employees = employeeListReader.readValue(inputMessage.getBody());
+                return employees.getEmployees() != null ? employees.getEmployees() : List.of();
+            }
+
+            return employeeReader.readValue(inputMessage.getBody());
+        } catch (IOException ex){
+            throw new HttpMessageNotReadableException("Invalid protobuf employee message: " + ex.getMessage(), ex, inputMessage);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+
+        try {
+            if (value instanceof List){
+                employeeListWriter.writeValue(outputMessage.getBody(), new EmployeeList((List<Employee>) value));
+            } else {
+                employeeWriter.writeValue(outputMessage.getBody(), value);
+            }
+        } catch (IOException ex){
+            throw new HttpMessageNotWritableException("Can not write protobuf employee message: " + ex.getMessage(), ex);
+        }
+    }
+
+
+    private static boolean isEmployeeType(Type type){
+        return type == Employee.class || isEmployeeList(type);
+    }
+
+    private static boolean isEmployeeList(Type type){
+
+        ResolvableType resolvableType = ResolvableType.forType(type);
+
+        return List.class.isAssignableFrom(resolvableType.toClass())
+                && resolvableType.getGeneric(0).resolve() == Employee.class;
+    }
+
+    // The message a list of employees is wrapped in, protobuf has no top level repeated values.
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class EmployeeList {
+
+        private List<Employee> employees;
+    }
+}
@@ -0,0 +1,7 @@
+package net.javaguides.springboot.datasource;
+
+// Lookup keys of the ReadWriteRoutingDataSource.
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
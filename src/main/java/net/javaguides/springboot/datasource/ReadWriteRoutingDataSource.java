@@ -0,0 +1,51 @@
+package net.javaguides.springboot.datasource;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+// Sends connections of @Transactional(readOnly = true) transactions to the replica while it is in sync,
+// everything else (writes, no transaction, lagging replica) to the primary.
+// Must sit behind a LazyConnectionDataSourceProxy: the read-only flag is only bound after the transaction
+// manager asked for the connection, the lazy proxy defers the lookup to the first statement.
+// Replica reads may be up to max-replica-lag-seconds old, so they must not fill the Hibernate entity region or
+// query cache where they would outlive the lag until the ttl: a transaction sent to the replica only reads the
+// second-level cache (CacheMode.GET). Open-in-view is off, the session ends with the transaction.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor replicaLagMonitor) {
+        this.replicaLagMonitor = replicaLagMonitor;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DataSourceRole.PRIMARY, primary);
+        targets.put(DataSourceRole.REPLICA, replica);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicaLagMonitor.isReplicaAvailable()){
+            skipSecondLevelCachePuts();
+            return DataSourceRole.REPLICA;
+        }
+        return DataSourceRole.PRIMARY;
+    }
+
+    private static void skipSecondLevelCachePuts(){
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()){
+            if (resource instanceof EntityManagerHolder){
+                ((EntityManagerHolder) resource).getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.GET);
+            }
+        }
+    }
+}
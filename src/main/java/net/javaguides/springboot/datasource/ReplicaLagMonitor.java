@@ -0,0 +1,105 @@
+package net.javaguides.springboot.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Polls the replica with the lag query and takes it out of read routing while the lag is above the limit,
+// unknown (replication stopped) or the replica cannot be reached.
+// The lag query returns the lag in seconds: either its first column, or the Seconds_Behind_Source /
+// Seconds_Behind_Master column of MySQL's SHOW REPLICA STATUS.
+// A MeterBinder rather than a MeterRegistry user: the registry binds the pool metrics of the routing DataSource,
+// which needs this monitor first.
+public class ReplicaLagMonitor implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+
+    // Reads stay on the primary until the replica passed its first check, which runs on the scheduler
+    // right after startup: an unreachable replica must not hold up the start for the connection timeout.
+    private volatile boolean replicaAvailable;
+    private volatile double lastLagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagSeconds) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("employee.datasource.replica.lag", this, monitor -> monitor.lastLagSeconds)
+                .description("Replication lag measured by the lag query, NaN when unknown")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("employee.datasource.replica.available", this, monitor -> monitor.replicaAvailable ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.routing.lag-check-interval-ms:1000}", initialDelay = 0)
+    public void check() {
+        Double lag;
+        try {
+            lag = queryLag();
+        } catch (SQLException ex){
+            lag = null;
+            if (replicaAvailable){
+                log.warn("Replica lag check failed, reads fall back to the primary", ex);
+            }
+        }
+
+        boolean available = lag != null && lag <= maxLagSeconds;
+        if (available != replicaAvailable){
+            if (available){
+                log.info("Replica is in sync (lag {} s), routing reads to it", lag);
+            } else if (lag != null){
+                log.warn("Replica lag {} s exceeds {} s, reads fall back to the primary", lag, maxLagSeconds);
+            }
+        }
+
+        lastLagSeconds = lag != null ? lag : Double.NaN;
+        replicaAvailable = available;
+    }
+
+    private Double queryLag() throws SQLException {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+
+            if (!resultSet.next()){
+                // SHOW REPLICA STATUS returns no row when the server is not a replica
+                return null;
+            }
+            long lag = resultSet.getLong(lagColumn(resultSet.getMetaData()));
+            return resultSet.wasNull() ? null : (double) lag;
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int column = 1; column <= metaData.getColumnCount(); column++){
+            String label = metaData.getColumnLabel(column);
+            if ("Seconds_Behind_Source".equalsIgnoreCase(label) || "Seconds_Behind_Master".equalsIgnoreCase(label)){
+                return column;
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,18 @@
+package net.javaguides.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.javaguides.springboot.model.Employee;
+
+import java.util.List;
+
+// Employees looked up by id, in the order the ids were given.
+@Getter
+@AllArgsConstructor
+public class EmployeeBatch {
+
+    private List<Employee> employees;
+
+    // Requested ids without an employee, in the requested order.
+    private List<Long> missingIds;
+}
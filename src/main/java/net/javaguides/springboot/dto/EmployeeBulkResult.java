@@ -0,0 +1,18 @@
+package net.javaguides.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Outcome of a bulk update or delete.
+@Getter
+@AllArgsConstructor
+public class EmployeeBulkResult {
+
+    // Rows the UPDATE or DELETE statements reported.
+    private long affected;
+
+    // One per chunk of app.employees.bulk.chunk-size employees, each committed on its own.
+    private int transactions;
+
+    private long durationMillis;
+}
@@ -0,0 +1,31 @@
+package net.javaguides.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+// Body of POST /api/employees/bulk-update: the employees are picked either by ids or by the domain
+// of their email, and every non-null change is applied to all of them.
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeBulkUpdate {
+
+    private List<Long> ids;
+
+    // e.g. "example.com" for every employee with an @example.com email.
+    private String emailDomain;
+
+    private String firstName;
+
+    private String lastName;
+
+    // Replaces what follows the @ of the picked emails.
+    private String newEmailDomain;
+}
@@ -0,0 +1,22 @@
+package net.javaguides.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// State of an employee accepted by the write-behind queue, see /api/employees/pending/{id}.
+@Getter
+@AllArgsConstructor
+public class EmployeeCreateStatus {
+
+    public enum State { PENDING, CREATED, FAILED }
+
+    private String id;
+
+    private State state;
+
+    // Set once the employee is CREATED.
+    private Long employeeId;
+
+    // Why the employee was not saved, set when FAILED.
+    private String reason;
+}
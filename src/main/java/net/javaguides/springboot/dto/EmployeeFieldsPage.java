@@ -0,0 +1,19 @@
+package net.javaguides.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+// One keyset page of employees reduced to the requested fields, ordered by id.
+@Getter
+@AllArgsConstructor
+public class EmployeeFieldsPage {
+
+    // field name to value, in the requested order.
+    private List<Map<String, Object>> employees;
+
+    // id of the last employee in this page, null when there is no next page.
+    private Long nextCursor;
+}
@@ -0,0 +1,36 @@
+package net.javaguides.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Outcome of a CSV import, rejections are listed up to app.employees.import.max-reported-rejections.
+@Getter
+@AllArgsConstructor
+public class EmployeeImportSummary {
+
+    private long rowsRead;
+
+    private long imported;
+
+    private long rejected;
+
+    private List<RejectedRow> rejectedRows;
+
+    private long durationMillis;
+
+    private double rowsPerSecond;
+
+    @Getter
+    @AllArgsConstructor
+    public static class RejectedRow {
+
+        // 1-based position of the data row, the header is not counted.
+        private long row;
+
+        private String email;
+
+        private String reason;
+    }
+}
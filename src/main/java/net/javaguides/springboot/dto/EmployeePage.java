@@ -0,0 +1,18 @@
+package net.javaguides.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.javaguides.springboot.model.Employee;
+
+import java.util.List;
+
+// One keyset page of employees, ordered by id.
+@Getter
+@AllArgsConstructor
+public class EmployeePage {
+
+    private List<Employee> employees;
+
+    // id of the last employee in this page, null when there is no next page.
+    private Long nextCursor;
+}
@@ -0,0 +1,20 @@
+package net.javaguides.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// One match of GET /api/employees/suggest, distance is the number of typos corrected (0 for a prefix match).
+@Getter
+@AllArgsConstructor
+public class EmployeeSuggestion {
+
+    private long id;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String email;
+
+    private int distance;
+}
@@ -0,0 +1,18 @@
+package net.javaguides.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.javaguides.springboot.model.ReactiveEmployee;
+
+import java.util.List;
+
+// EmployeePage of the reactive profile.
+@Getter
+@AllArgsConstructor
+public class ReactiveEmployeePage {
+
+    private List<ReactiveEmployee> employees;
+
+    // id to pass as "after" for the next page, null on the last page
+    private Long nextCursor;
+}
@@ -0,0 +1,30 @@
+package net.javaguides.springboot.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.javaguides.springboot.model.Employee;
+
+import java.util.List;
+
+// Published by EmployeeService inside the writing transaction, so listeners that need the committed
+// state use @TransactionalEventListener. Bulk deletes bypass the entities, they only carry the ids.
+@Getter
+@AllArgsConstructor
+public class EmployeesChangedEvent {
+
+    private List<Employee> savedEmployees;
+
+    private List<Long> deletedIds;
+
+    public static EmployeesChangedEvent saved(List<Employee> employees){
+        return new EmployeesChangedEvent(employees, List.of());
+    }
+
+    public static EmployeesChangedEvent deleted(long id){
+        return new EmployeesChangedEvent(List.of(), List.of(id));
+    }
+
+    public static EmployeesChangedEvent deleted(List<Long> ids){
+        return new EmployeesChangedEvent(List.of(), ids);
+    }
+}
@@ -0,0 +1,121 @@
+package net.javaguides.springboot.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Gradient concurrency limit (after Netflix's concurrency-limits Gradient2): the limit follows
+// limit * (longRtt / shortRtt) + sqrt(limit), so it shrinks as soon as recent latency rises above
+// the long term latency and grows by about sqrt(limit) while latency is flat. Failed requests
+// (5xx, exceptions) cut it multiplicatively, like AIMD.
+// Requests over the limit are refused instead of queued, see ConcurrencyLimitFilter.
+public class AdaptiveConcurrencyLimiter {
+
+    // Latency averages over roughly the last 10 and the last 600 requests.
+    private static final double SHORT_RTT_WEIGHT = 2.0 / (10 + 1);
+    private static final double LONG_RTT_WEIGHT = 2.0 / (600 + 1);
+
+    // Recent latency may be this much above the long term one before the limit goes down.
+    private static final double TOLERANCE = 1.5;
+
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    // Guarded by this.
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    // Takes a slot when fewer than limit requests are in flight; every true has to be followed
+    // by onSuccess, onDropped or onIgnore.
+    public boolean tryAcquire() {
+
+        while (true){
+            int current = inFlight.get();
+
+            if (current >= limit){
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)){
+                return true;
+            }
+        }
+    }
+
+    public void onSuccess(long rttNanos, int inFlightAtStart) {
+
+        inFlight.decrementAndGet();
+        update(rttNanos, inFlightAtStart);
+    }
+
+    public void onDropped() {
+
+        inFlight.decrementAndGet();
+
+        synchronized (this){
+            estimatedLimit = Math.max(minLimit, estimatedLimit * BACKOFF_RATIO);
+            limit = (int) estimatedLimit;
+        }
+    }
+
+    // Releases the slot without a sample, for requests whose latency says nothing about the load.
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+
+    private synchronized void update(long rttNanos, int inFlightAtStart){
+
+        if (longRttNanos == 0){
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+
+        shortRttNanos += (rttNanos - shortRttNanos) * SHORT_RTT_WEIGHT;
+        longRttNanos += (rttNanos - longRttNanos) * LONG_RTT_WEIGHT;
+
+        // After a slow period the long term average lags behind, pull it down so the limit can recover.
+        if (longRttNanos / shortRttNanos > 2){
+            longRttNanos *= 0.95;
+        }
+
+        // Far below the limit the latency tells nothing about what the limit should be.
+        if (inFlightAtStart < estimatedLimit / 2){
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,98 @@
+package net.javaguides.springboot.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+
+// Sheds load with an immediate 503 once a limiter is full, so requests fail fast instead of waiting
+// for a Tomcat thread or a Hikari connection. Reads (GET, HEAD) and writes have their own limiter,
+// slow writes do not starve reads. Published as employee.concurrency.{limit, in-flight, rejected}{type}.
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private AdaptiveConcurrencyLimiter readLimiter;
+    private AdaptiveConcurrencyLimiter writeLimiter;
+
+    // Long running bulk endpoints (export, import) are neither limited nor sampled.
+    private Set<String> excludedPaths;
+
+    private Counter readRejections;
+    private Counter writeRejections;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter readLimiter,
+                                  AdaptiveConcurrencyLimiter writeLimiter,
+                                  Set<String> excludedPaths,
+                                  MeterRegistry meterRegistry) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.excludedPaths = excludedPaths;
+        this.readRejections = bind(readLimiter, meterRegistry);
+        this.writeRejections = bind(writeLimiter, meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return excludedPaths.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        AdaptiveConcurrencyLimiter limiter = read ? readLimiter : writeLimiter;
+
+        if (!limiter.tryAcquire()){
+            (read ? readRejections : writeRejections).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many concurrent " + limiter.getName() + " requests");
+            return;
+        }
+
+        int inFlight = limiter.getInFlight();
+        long start = System.nanoTime();
+        boolean failed = true;
+
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            if (request.isAsyncStarted()){
+                // Only the start of the async work was measured.
+                limiter.onIgnore();
+            } else if (failed){
+                limiter.onDropped();
+            } else {
+                limiter.onSuccess(System.nanoTime() - start, inFlight);
+            }
+        }
+    }
+
+
+    private static Counter bind(AdaptiveConcurrencyLimiter limiter, MeterRegistry meterRegistry){
+
+        Gauge.builder("employee.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("type", limiter.getName())
+                .register(meterRegistry);
+        Gauge.builder("employee.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently holding a concurrency slot")
+                .tag("type", limiter.getName())
+                .register(meterRegistry);
+
+        return Counter.builder("employee.concurrency.rejected")
+                .description("Requests shed with a 503 because the concurrency limit was reached")
+                .tag("type", limiter.getName())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,47 @@
+package net.javaguides.springboot.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Times every EmployeeService call as employee.service{method, outcome, exception}.
+// Runs outermost, so the timing includes the cache and the transaction around the method.
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class EmployeeServiceMetricsAspect {
+
+    private static final String METRIC_NAME = "employee.service";
+
+    private MeterRegistry meterRegistry;
+
+    public EmployeeServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* net.javaguides.springboot.service.EmployeeService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex){
+            exception = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("EmployeeService method execution time")
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", "none".equals(exception) ? "SUCCESS" : "ERROR")
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
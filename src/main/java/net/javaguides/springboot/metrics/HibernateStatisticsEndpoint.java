@@ -0,0 +1,77 @@
+package net.javaguides.springboot.metrics;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// /actuator/hibernate: a snapshot of the Hibernate Statistics (needs hibernate.generate_statistics=true),
+// DELETE /actuator/hibernate resets them.
+@Component
+@Profile("!reactive")
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+
+    private Statistics statistics;
+
+    public HibernateStatisticsEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        result.put("startTime", statistics.getStartTime());
+
+        Map<String, Object> queries = new LinkedHashMap<>();
+        queries.put("executionCount", statistics.getQueryExecutionCount());
+        queries.put("executionMaxTimeMs", statistics.getQueryExecutionMaxTime());
+        queries.put("executionMaxTimeQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        queries.put("prepareStatementCount", statistics.getPrepareStatementCount());
+        result.put("queries", queries);
+
+        Map<String, Object> entities = new LinkedHashMap<>();
+        entities.put("loadCount", statistics.getEntityLoadCount());
+        entities.put("fetchCount", statistics.getEntityFetchCount());
+        entities.put("insertCount", statistics.getEntityInsertCount());
+        entities.put("updateCount", statistics.getEntityUpdateCount());
+        entities.put("deleteCount", statistics.getEntityDeleteCount());
+        entities.put("optimisticFailureCount", statistics.getOptimisticFailureCount());
+        result.put("entities", entities);
+
+        result.put("secondLevelCache", cacheStatistics(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        result.put("queryCache", cacheStatistics(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+
+        Map<String, Object> sessions = new LinkedHashMap<>();
+        sessions.put("openCount", statistics.getSessionOpenCount());
+        sessions.put("flushCount", statistics.getFlushCount());
+        sessions.put("transactionCount", statistics.getTransactionCount());
+        sessions.put("connectCount", statistics.getConnectCount());
+        result.put("sessions", sessions);
+        return result;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        statistics.clear();
+    }
+
+    private static Map<String, Object> cacheStatistics(long hits, long misses, long puts) {
+        Map<String, Object> cache = new LinkedHashMap<>();
+        cache.put("hitCount", hits);
+        cache.put("missCount", misses);
+        cache.put("putCount", puts);
+        cache.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        return cache;
+    }
+}
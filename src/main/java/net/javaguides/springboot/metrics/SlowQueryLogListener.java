@@ -0,0 +1,70 @@
+package net.javaguides.springboot.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Logs statements that took at least the threshold, after they completed, with a summary of the bind parameters:
+// long values are cut and a JDBC batch shows only its first parameter sets.
+public class SlowQueryLogListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger("net.javaguides.springboot.sql.slow");
+
+    static final int MAX_VALUE_LENGTH = 64;
+    static final int MAX_PARAMETER_SETS = 3;
+
+    private final long thresholdMs;
+    private final SummarizingLogEntryCreator logEntryCreator = new SummarizingLogEntryCreator();
+
+    public SlowQueryLogListener(long thresholdMs) {
+        this.thresholdMs = thresholdMs;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() >= thresholdMs && log.isWarnEnabled()){
+            log.warn("Slow query ({} ms >= {} ms) {}", execInfo.getElapsedTime(), thresholdMs,
+                    logEntryCreator.getLogEntry(execInfo, queryInfoList, false, false, false));
+        }
+    }
+
+    static class SummarizingLogEntryCreator extends DefaultQueryLogEntryCreator {
+
+        @Override
+        protected String getParameterValueToDisplay(ParameterSetOperation param) {
+            String value = super.getParameterValueToDisplay(param);
+            if (value != null && value.length() > MAX_VALUE_LENGTH){
+                return value.substring(0, MAX_VALUE_LENGTH) + "...(" + value.length() + " chars)";
+            }
+            return value;
+        }
+
+        @Override
+        protected void writeParamsEntry(StringBuilder sb, ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            int omitted = 0;
+            List<QueryInfo> summarized = new ArrayList<>(queryInfoList.size());
+            for (QueryInfo queryInfo : queryInfoList){
+                List<List<ParameterSetOperation>> parametersList = queryInfo.getParametersList();
+                QueryInfo summary = new QueryInfo(queryInfo.getQuery());
+                summary.setParametersList(parametersList.subList(0, Math.min(parametersList.size(), MAX_PARAMETER_SETS)));
+                omitted += parametersList.size() - summary.getParametersList().size();
+                summarized.add(summary);
+            }
+            super.writeParamsEntry(sb, execInfo, summarized);
+            if (omitted > 0){
+                sb.append(" (+").append(omitted).append(" more parameter sets)");
+            }
+        }
+    }
+}
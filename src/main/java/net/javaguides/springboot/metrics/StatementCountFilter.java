@@ -0,0 +1,65 @@
+package net.javaguides.springboot.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+// Publishes the number of SQL statements each request ran as employee.request.statements{method, uri}
+// and logs the breakdown at DEBUG. The counts come from the thread bound QueryCountHolder of datasource-proxy,
+// registered by DataSourceProxyConfig, so they only cover statements run on the request thread. Requests that
+// went async (the streamed export, work on the applicationTaskExecutor) run theirs elsewhere and are not recorded.
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger("net.javaguides.springboot.sql.request");
+
+    private MeterRegistry meterRegistry;
+
+    public StatementCountFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        QueryCountHolder.clear();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryCount count = QueryCountHolder.getGrandTotal();
+            QueryCountHolder.clear();
+
+            if (request.isAsyncStarted()){
+                return;
+            }
+
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+            DistributionSummary.builder("employee.request.statements")
+                    .description("SQL statements executed per HTTP request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(count.getTotal());
+
+            if (log.isDebugEnabled()){
+                log.debug("{} {} ran {} statements (select={}, insert={}, update={}, delete={}, other={}) in {} ms",
+                        request.getMethod(), uri, count.getTotal(), count.getSelect(), count.getInsert(),
+                        count.getUpdate(), count.getDelete(), count.getOther(), count.getTime());
+            }
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package net.javaguides.springboot.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import javax.persistence.*;
+import java.time.Instant;
 
 @Getter
 @Setter
@@ -11,11 +18,27 @@ import javax.persistence.*;
 @Builder
 
 @Entity
-@Table(name="employees")
+@DynamicUpdate     // UPDATE statements only set the changed columns.
+@Cacheable         // Second-level cache, see HibernateCacheConfig; READ_WRITE keeps it consistent with the versioned updates.
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name="employees",
+        uniqueConstraints = @UniqueConstraint(name = "uk_employees_email", columnNames = "email"),
+        indexes = @Index(name = "idx_employees_last_first", columnList = "last_name, first_name"))
 public class Employee {
 
+    // IDENTITY ids disable JDBC insert batching, so ids are allocated in blocks of 50 (pooled-lo)
+    // from the employees_seq table instead. MySQL has no sequences, hence the table is forced
+    // on every database.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employees_seq")
+    @GenericGenerator(name = "employees_seq",
+            strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = "employees_seq"),
+                    @Parameter(name = "force_table_use", value = "true"),
+                    @Parameter(name = "increment_size", value = "50"),
+                    @Parameter(name = "optimizer", value = "pooled-lo")
+            })
     private long id;
 
     @Column(name="first_name", nullable = false)
@@ -26,5 +49,15 @@ public class Employee {
 
     @Column(nullable = false)
     private String email;
+
+    // Optimistic locking: concurrent edits of the same row fail instead of overwriting each other.
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // Set by Hibernate on every insert and update, the Last-Modified of the employee resource.
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
 }
 
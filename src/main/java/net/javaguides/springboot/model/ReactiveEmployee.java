@@ -0,0 +1,37 @@
+package net.javaguides.springboot.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+// The employees table for Spring Data R2DBC (reactive profile), columns follow the snake_case naming.
+// Same JSON as Employee. Kept apart from the JPA entity: Spring Data JPA claims every repository of an @Entity.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+
+@Table("employees")
+public class ReactiveEmployee {
+
+    // allocated by ReactiveEmployeeIdGenerator
+    @Id
+    private long id;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String email;
+
+    // null until inserted, which is how Spring Data tells a new employee from an existing one
+    @Version
+    private Long version;
+
+    // set by ReactiveEmployeeServiceImpl on every insert and update
+    private Instant updatedAt;
+}
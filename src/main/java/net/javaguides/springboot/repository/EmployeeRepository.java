@@ -1,22 +1,36 @@
 package net.javaguides.springboot.repository;
 
 import net.javaguides.springboot.model.Employee;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+// The hinted queries go through the Hibernate query cache (see HibernateCacheConfig), which drops
+// their results whenever the employees table changes. Native queries are not cached: Hibernate
+// can not tell which tables they read.
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeRepositoryCustom {
 
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
     Optional<Employee> findByEmail(String email);
 
     // define custom query using JPQL with index parameters
     @Query("select e from Employee e where e.firstName = ?1 and e.lastName = ?2")
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
     Employee findByJPQL(String firstName, String lastName);
 
     // define custom query using JPQL with named parameters
     @Query("select e from Employee e where e.firstName = :firstName and e.lastName = :lastName")
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
     Employee findByJPQLNamedParams(@Param("firstName") String firstName, @Param("lastName") String lastName);
 
 
@@ -30,4 +44,35 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     Employee findByNativeNamedSQL(@Param("firstName") String firstName, @Param("lastName") String lastName);
 
 
+    // the given emails that are already taken, one query per chunk of a CSV import
+    @Query("select e.email from Employee e where e.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+
+    // all employees with the given name, served by the (last_name, first_name) index
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
+    List<Employee> findByLastNameAndFirstName(String lastName, String firstName);
+
+
+    // keyset pagination: the employees after the given id, in id order (page size comes from the pageable)
+    @Query("select e from Employee e where e.id > :afterId order by e.id")
+    List<Employee> findNextPage(@Param("afterId") long afterId, Pageable pageable);
+
+
+    // keyset over the ids of the employees whose email matches the LIKE pattern ('!' escapes), for bulk updates
+    @Query("select e.id from Employee e where e.email like :emailLike escape '!' and e.id > :afterId order by e.id")
+    List<Long> findNextIdsByEmailLike(@Param("emailLike") String emailLike, @Param("afterId") long afterId, Pageable pageable);
+
+
+    // single DELETE statement for a chunk of a bulk delete, returns the number of deleted rows
+    @Transactional
+    @Modifying
+    @Query("delete from Employee e where e.id in :ids")
+    int deleteEmployeesByIds(@Param("ids") Collection<Long> ids);
+
+
+    // just the version column, enough to answer a conditional GET without loading the employee
+    @Query("select e.version from Employee e where e.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
+
 }
@@ -0,0 +1,36 @@
+package net.javaguides.springboot.repository;
+
+import net.javaguides.springboot.model.Employee;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+// Queries that need the Hibernate Session or the Criteria API directly, implemented in EmployeeRepositoryImpl.
+public interface EmployeeRepositoryCustom {
+
+    // Hands every employee, in id order, to the consumer one at a time without building a list.
+    // Needs a surrounding transaction; returns the number of employees passed on.
+    long streamAll(Consumer<? super Employee> consumer);
+
+    // Sparse fieldsets: only the columns of the given Employee attributes are selected, each
+    // employee comes back as attribute name to value in the given order.
+    Optional<Map<String, Object>> findFieldsById(long id, List<String> fields);
+
+    // keyset pagination of findFieldsById, the employees after the given id in id order.
+    List<Map<String, Object>> findNextPageFields(long afterId, int limit, List<String> fields);
+
+    // One UPDATE of the given employees that sets only the non-null values; emailDomain replaces
+    // what follows the @ of the email. emailLike, when given, is checked again by the statement.
+    // Bumps version and sets updatedAt like an entity update would; returns the number of updated rows.
+    int updateEmployees(Collection<Long> ids, String emailLike, String firstName, String lastName,
+                        String emailDomain, Instant updatedAt);
+
+    // Deletes one employee, only while it is at expectedVersion when that is given (If-Match on DELETE).
+    // Returns the number of deleted rows; OptimisticLockingFailureException when the row changed under it.
+    int deleteEmployee(long id, Long expectedVersion);
+
+}
@@ -0,0 +1,193 @@
+package net.javaguides.springboot.repository;
+
+import net.javaguides.springboot.model.Employee;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private int fetchSize;
+
+    public EmployeeRepositoryImpl(@Value("${app.employees.export.fetch-size:500}") int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    // A forward only cursor with a JDBC fetch size, so the driver holds at most fetchSize rows
+    // (MySQL needs useCursorFetch=true for that). Every employee is detached once consumed,
+    // which keeps the persistence context, and with it the heap, from growing with the table.
+    @Override
+    public long streamAll(Consumer<? super Employee> consumer) {
+
+        Session session = entityManager.unwrap(Session.class);
+
+        Query<Employee> query = session.createQuery("select e from Employee e order by e.id", Employee.class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE);
+
+        long count = 0;
+
+        try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()){
+                Employee employee = (Employee) results.get(0);
+                consumer.accept(employee);
+                session.detach(employee);
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(long id, List<String> fields) {
+
+        return fieldsQuery(fields, (root, query, builder) -> builder.equal(root.get("id"), id), 1)
+                .stream().findFirst();
+    }
+
+    @Override
+    public List<Map<String, Object>> findNextPageFields(long afterId, int limit, List<String> fields) {
+
+        return fieldsQuery(fields, (root, query, builder) -> builder.greaterThan(root.get("id"), afterId), limit);
+    }
+
+    // A Criteria update, so the SET clause only names the columns that change. Being a bulk statement
+    // it bypasses the entities: Hibernate evicts Employee from the second-level cache and marks the
+    // employees table as changed for the query cache, but @Version and @UpdateTimestamp are set here.
+    @Override
+    public int updateEmployees(Collection<Long> ids, String emailLike, String firstName, String lastName,
+                               String emailDomain, Instant updatedAt) {
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Employee> update = builder.createCriteriaUpdate(Employee.class);
+        Root<Employee> root = update.from(Employee.class);
+
+        Path<String> email = root.get("email");
+        Path<Long> version = root.get("version");
+
+        List<Predicate> restrictions = new ArrayList<>();
+        restrictions.add(root.get("id").in(ids));
+
+        if (emailLike != null){
+            restrictions.add(builder.like(email, emailLike, '!'));
+        }
+        if (firstName != null){
+            update.set(root.<String>get("firstName"), firstName);
+        }
+        if (lastName != null){
+            update.set(root.<String>get("lastName"), lastName);
+        }
+        if (emailDomain != null){
+            // Everything up to and including the @, then the new domain.
+            Expression<String> localPart = builder.substring(email, builder.literal(1), builder.locate(email, "@"));
+            update.set(email, builder.concat(localPart, emailDomain));
+            restrictions.add(builder.like(email, "%@%"));
+        }
+
+        update.set(version, builder.sum(version, 1L))
+                .set(root.<Instant>get("updatedAt"), updatedAt)
+                .where(restrictions.toArray(new Predicate[0]));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    // With the second-level cache on, a bulk DELETE would evict the whole Employee region, so the
+    // employee is loaded (usually a cache hit) and removed: Hibernate evicts only its entry and the
+    // statement checks the version. Without the cache, a single DELETE avoids loading the row.
+    @Override
+    public int deleteEmployee(long id, Long expectedVersion) {
+
+        Session session = entityManager.unwrap(Session.class);
+
+        if (!session.getSessionFactory().getSessionFactoryOptions().isSecondLevelCacheEnabled()){
+            String delete = expectedVersion == null
+                    ? "delete from Employee e where e.id = :id"
+                    : "delete from Employee e where e.id = :id and e.version = :version";
+
+            Query<?> query = session.createQuery(delete).setParameter("id", id);
+
+            if (expectedVersion != null){
+                query.setParameter("version", expectedVersion);
+            }
+
+            return query.executeUpdate();
+        }
+
+        Employee employee = entityManager.find(Employee.class, id);
+
+        if (employee == null || (expectedVersion != null && !expectedVersion.equals(employee.getVersion()))){
+            return 0;
+        }
+
+        entityManager.remove(employee);
+        entityManager.flush();
+        return 1;
+    }
+
+    // A tuple query selecting just the given attributes, aliased by name. Unknown attribute names
+    // are rejected by root.get with an IllegalArgumentException.
+    private List<Map<String, Object>> fieldsQuery(List<String> fields, Specification<Employee> restriction, int limit){
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Employee> root = query.from(Employee.class);
+
+        List<Selection<?>> selections = fields.stream()
+                .map(field -> root.get(field).alias(field))
+                .collect(Collectors.toList());
+
+        query.multiselect(selections)
+                .where(restriction.toPredicate(root, query, builder))
+                .orderBy(builder.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(EmployeeRepositoryImpl::toMap)
+                .collect(Collectors.toList());
+    }
+
+    private static Map<String, Object> toMap(Tuple tuple){
+
+        Map<String, Object> values = new LinkedHashMap<>();
+
+        for (TupleElement<?> element : tuple.getElements()){
+            values.put(element.getAlias(), tuple.get(element));
+        }
+
+        return values;
+    }
+
+}
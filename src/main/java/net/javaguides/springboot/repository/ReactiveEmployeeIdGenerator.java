@@ -0,0 +1,70 @@
+package net.javaguides.springboot.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Mono;
+
+// Pooled-lo ids from the employees_seq table for the reactive profile, compatible with the
+// JPA generator of Employee: each reserves blocks of 50 by moving next_val, so both stacks
+// can write to the same database.
+@Component
+@Profile("reactive")
+public class ReactiveEmployeeIdGenerator {
+
+    static final int INCREMENT_SIZE = 50;
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator requiresNew;
+
+    // current block [next, hi), guarded by this
+    private long next;
+    private long hi;
+
+    public ReactiveEmployeeIdGenerator(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager) {
+        this.databaseClient = databaseClient;
+        this.requiresNew = TransactionalOperator.create(transactionManager,
+                new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+
+    public Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            Long id = takeFromBlock();
+            return id != null ? Mono.just(id) : allocateBlock().map(this::installBlock);
+        });
+    }
+
+    private synchronized Long takeFromBlock() {
+        return next < hi ? next++ : null;
+    }
+
+    // Another request may have installed a new block in the meantime, then the fetched one is dropped.
+    private synchronized long installBlock(long lo) {
+        if (next >= hi){
+            next = lo;
+            hi = lo + INCREMENT_SIZE;
+        }
+        return next++;
+    }
+
+    // Select and compare-and-set update in a transaction of its own, like Hibernate's table structure:
+    // a rollback of the caller must not hand out the same block twice.
+    private Mono<Long> allocateBlock() {
+        return databaseClient.sql("select next_val from employees_seq for update")
+                .map(row -> row.get("next_val", Long.class))
+                .one()
+                .flatMap(lo -> databaseClient.sql("update employees_seq set next_val = :hi where next_val = :lo")
+                        .bind("hi", lo + INCREMENT_SIZE)
+                        .bind("lo", lo)
+                        .fetch()
+                        .rowsUpdated()
+                        .filter(updated -> updated == 1)
+                        .map(updated -> lo))
+                .as(requiresNew::transactional)
+                .repeatWhenEmpty(10, repeat -> repeat);
+    }
+}
@@ -0,0 +1,31 @@
+package net.javaguides.springboot.repository;
+
+import net.javaguides.springboot.model.ReactiveEmployee;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// R2DBC counterpart of EmployeeRepository, used by the "reactive" profile.
+public interface ReactiveEmployeeRepository extends R2dbcRepository<ReactiveEmployee, Long> {
+
+    Mono<ReactiveEmployee> findByEmail(String email);
+
+
+    // all employees with the given name, served by the (last_name, first_name) index
+    Flux<ReactiveEmployee> findByLastNameAndFirstName(String lastName, String firstName);
+
+
+    // keyset pagination: the employees after the given id, in id order
+    @Query("select * from employees e where e.id > :afterId order by e.id limit :limit")
+    Flux<ReactiveEmployee> findNextPage(@Param("afterId") long afterId, @Param("limit") int limit);
+
+
+    // single DELETE statement, emits the number of deleted rows
+    @Modifying
+    @Query("delete from employees where id = :id")
+    Mono<Integer> deleteEmployeeById(@Param("id") long id);
+
+}
@@ -0,0 +1,363 @@
+package net.javaguides.springboot.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.javaguides.springboot.dto.EmployeeSuggestion;
+import net.javaguides.springboot.event.EmployeesChangedEvent;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory typeahead over first names, last names and emails: prefix matches first, then matches
+// with up to one typo (queries of 3 to 5 characters) or two (longer queries).
+// Built from the table once the application is ready and kept in sync by the EmployeesChangedEvents
+// of EmployeeService after their transaction committed. Writes that bypass EmployeeService are only
+// picked up by rebuild().
+@Component
+@Profile("!reactive")
+public class EmployeeSuggestIndex implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSuggestIndex.class);
+
+    // Multi-word queries filter the matches of their longest word, so more of those are collected.
+    private static final int CANDIDATES_PER_SUGGESTION = 20;
+
+    // Rough per employee overhead of the entries map: HashMap node, boxed id and Entry.
+    private static final int ENTRY_BYTES = 72;
+
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock.
+    private SuggestTrie trie = new SuggestTrie();
+    private Map<Long, Entry> entries = new HashMap<>();
+
+    // Changes committed while rebuild() reads the table, replayed on the new index. Guarded by lock.
+    private List<EmployeesChangedEvent> pendingChanges;
+
+    private volatile long buildMillis = -1;
+
+    private Timer suggestTimer;
+
+    public EmployeeSuggestIndex(EmployeeRepository employeeRepository, PlatformTransactionManager transactionManager) {
+        this.employeeRepository = employeeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        suggestTimer = Timer.builder("employee.suggest")
+                .description("Time to answer a suggest query from the index")
+                .register(meterRegistry);
+        Gauge.builder("employee.suggest.index.employees", this, EmployeeSuggestIndex::size)
+                .description("Employees in the suggest index")
+                .register(meterRegistry);
+        Gauge.builder("employee.suggest.index.memory", this, EmployeeSuggestIndex::estimatedBytes)
+                .description("Estimated heap used by the suggest index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        TimeGauge.builder("employee.suggest.index.build", this, TimeUnit.MILLISECONDS, index -> index.buildMillis)
+                .description("Duration of the last full build of the suggest index, -1 before the first one")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    // Reads every employee into a new index and swaps it in; suggestions keep coming from the
+    // current index meanwhile.
+    public synchronized void rebuild() {
+
+        long start = System.nanoTime();
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        SuggestTrie newTrie = new SuggestTrie();
+        Map<Long, Entry> newEntries = new HashMap<>();
+
+        transactionTemplate.executeWithoutResult(status ->
+                employeeRepository.streamAll(employee -> put(newTrie, newEntries, employee)));
+
+        lock.writeLock().lock();
+        try {
+            for (EmployeesChangedEvent change : pendingChanges){
+                apply(newTrie, newEntries, change);
+            }
+            pendingChanges = null;
+            trie = newTrie;
+            entries = newEntries;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        buildMillis = (System.nanoTime() - start) / 1_000_000;
+
+        log.info("Built the suggest index of {} employees in {} ms: {} trie nodes, about {} KiB",
+                newEntries.size(), buildMillis, newTrie.nodeCount(), estimatedBytes() / 1024);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeesChanged(EmployeesChangedEvent change) {
+
+        lock.writeLock().lock();
+        try {
+            apply(trie, entries, change);
+            if (pendingChanges != null){
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // At most limit employees, fewest typos first. Every word of the query has to match the start
+    // of the first name, last name or email.
+    public List<EmployeeSuggestion> suggest(String query, int limit) {
+
+        long start = System.nanoTime();
+
+        try {
+            return find(query, limit);
+        } finally {
+            if (suggestTimer != null){
+                suggestTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    public int size() {
+
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Walks the whole trie, meant for the gauge and the build log rather than for every request.
+    public long estimatedBytes() {
+
+        lock.readLock().lock();
+        try {
+            long bytes = trie.estimatedBytes();
+
+            for (Entry entry : entries.values()){
+                bytes += ENTRY_BYTES + entry.estimatedBytes();
+            }
+
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    private List<EmployeeSuggestion> find(String query, int limit){
+
+        List<String> words = words(query);
+
+        if (words.isEmpty() || limit <= 0){
+            return List.of();
+        }
+
+        // The longest word narrows the candidates down the most.
+        String first = words.stream().max(Comparator.comparingInt(String::length)).get();
+        List<String> others = new ArrayList<>(words);
+        others.remove(first);
+
+        int maxCandidates = others.isEmpty() ? limit : limit * CANDIDATES_PER_SUGGESTION;
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> distances = new LinkedHashMap<>();
+
+            trie.collectPrefix(first, maxCandidates, distances);
+
+            int maxEdits = maxEdits(first);
+            if (distances.size() < maxCandidates && maxEdits > 0){
+                trie.collectFuzzyPrefix(first, maxEdits, maxCandidates, distances);
+            }
+
+            List<EmployeeSuggestion> suggestions = new ArrayList<>();
+
+            for (Map.Entry<Long, Integer> candidate : distances.entrySet()){
+                Entry entry = entries.get(candidate.getKey());
+                int distance = candidate.getValue();
+
+                for (String word : others){
+                    int wordDistance = entry.distance(word);
+                    if (wordDistance > maxEdits(word)){
+                        distance = -1;
+                        break;
+                    }
+                    distance += wordDistance;
+                }
+
+                if (distance >= 0){
+                    suggestions.add(new EmployeeSuggestion(candidate.getKey(), entry.firstName, entry.lastName,
+                            entry.email, distance));
+                }
+            }
+
+            // Stable, prefix matches keep the shorter-first order of the trie.
+            suggestions.sort(Comparator.comparingInt(EmployeeSuggestion::getDistance));
+
+            return suggestions.size() > limit ? new ArrayList<>(suggestions.subList(0, limit)) : suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void apply(SuggestTrie trie, Map<Long, Entry> entries, EmployeesChangedEvent change){
+
+        for (Long id : change.getDeletedIds()){
+            remove(trie, entries, id);
+        }
+        for (Employee employee : change.getSavedEmployees()){
+            put(trie, entries, employee);
+        }
+    }
+
+    private static void put(SuggestTrie trie, Map<Long, Entry> entries, Employee employee){
+
+        remove(trie, entries, employee.getId());
+
+        Entry entry = new Entry(employee);
+        entries.put(employee.getId(), entry);
+
+        for (String term : entry.terms){
+            trie.add(term, employee.getId());
+        }
+    }
+
+    private static void remove(SuggestTrie trie, Map<Long, Entry> entries, long id){
+
+        Entry entry = entries.remove(id);
+
+        if (entry != null){
+            for (String term : entry.terms){
+                trie.remove(term, id);
+            }
+        }
+    }
+
+    private static List<String> words(String query){
+
+        List<String> words = new ArrayList<>();
+
+        if (query != null){
+            for (String word : query.trim().toLowerCase(Locale.ROOT).split("\\s+")){
+                if (!word.isEmpty()){
+                    words.add(word);
+                }
+            }
+        }
+
+        return words;
+    }
+
+    private static int maxEdits(String word){
+
+        if (word.length() < 3){
+            return 0;
+        }
+
+        return word.length() < 6 ? 1 : 2;
+    }
+
+    private static String term(String value){
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
+    // Latin-1 compact strings: String object plus a byte per character.
+    private static long stringBytes(String value){
+        return 24 + 16 + value.length();
+    }
+
+
+    private static class Entry {
+
+        private final String firstName;
+        private final String lastName;
+        private final String email;
+
+        // Lower cased first name, last name and email, the keys of this employee in the trie.
+        private final List<String> terms = new ArrayList<>(3);
+
+        private Entry(Employee employee) {
+            this.firstName = employee.getFirstName();
+            this.lastName = employee.getLastName();
+            this.email = employee.getEmail();
+
+            for (String value : new String[]{firstName, lastName, email}){
+                String term = term(value);
+                if (term != null && !term.isEmpty()){
+                    terms.add(term);
+                }
+            }
+        }
+
+        // Terms that were lower case already share the String of the value.
+        private long estimatedBytes(){
+
+            long bytes = 0;
+
+            for (String value : new String[]{firstName, lastName, email}){
+                if (value != null){
+                    bytes += stringBytes(value);
+                }
+            }
+            for (String term : terms){
+                if (term != firstName && term != lastName && term != email){
+                    bytes += stringBytes(term);
+                }
+            }
+
+            return bytes;
+        }
+
+        private int distance(String word){
+
+            int distance = Integer.MAX_VALUE;
+
+            for (String term : terms){
+                distance = Math.min(distance, SuggestTrie.prefixDistance(term, word));
+            }
+
+            return distance;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package net.javaguides.springboot.search;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+
+// Character trie from terms to employee ids. Children are kept in sorted parallel arrays and ids in
+// a long[] per node, so a node costs a few dozen bytes instead of a HashMap per node.
+// Not thread safe, EmployeeSuggestIndex guards it with a read/write lock.
+final class SuggestTrie {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long[] NO_IDS = new long[0];
+
+    // Rough sizes with compressed oops: object and array headers, then the elements.
+    private static final int NODE_BYTES = 32;
+    private static final int ARRAY_BYTES = 16;
+
+    private final Node root = new Node();
+
+    private int nodes = 1;
+
+    void add(String term, long id){
+
+        Node node = root;
+
+        for (int i = 0; i < term.length(); i++){
+            node = node.childOrCreate(term.charAt(i));
+        }
+
+        node.addId(id);
+    }
+
+    // Removes the id from the term and prunes the nodes that are left without ids and children.
+    void remove(String term, long id){
+
+        Node[] path = new Node[term.length() + 1];
+        path[0] = root;
+
+        for (int i = 0; i < term.length(); i++){
+            Node child = path[i].child(term.charAt(i));
+            if (child == null){
+                return;
+            }
+            path[i + 1] = child;
+        }
+
+        path[term.length()].removeId(id);
+
+        for (int i = term.length(); i > 0 && path[i].isEmpty(); i--){
+            path[i - 1].removeChild(term.charAt(i - 1));
+        }
+    }
+
+    // Ids of the terms that start with the query, at most maxIds of them, shorter terms first.
+    void collectPrefix(String query, int maxIds, Map<Long, Integer> distances){
+
+        Node node = root;
+
+        for (int i = 0; i < query.length() && node != null; i++){
+            node = node.child(query.charAt(i));
+        }
+
+        if (node != null){
+            collectSubtree(node, 0, maxIds, distances);
+        }
+    }
+
+    // Ids of the terms that start with something within maxEdits edits (Levenshtein) of the query.
+    // Walks the trie with one row of the edit distance matrix per node and leaves a branch as soon
+    // as every cell of the row is over maxEdits.
+    void collectFuzzyPrefix(String query, int maxEdits, int maxIds, Map<Long, Integer> distances){
+
+        int[] firstRow = new int[query.length() + 1];
+        for (int j = 0; j <= query.length(); j++){
+            firstRow[j] = j;
+        }
+
+        for (int i = 0; i < root.keys.length && distances.size() < maxIds; i++){
+            fuzzy(root.children[i], root.keys[i], query, firstRow, Integer.MAX_VALUE, maxEdits, maxIds, distances);
+        }
+    }
+
+    // Lowest edit distance between the query and a prefix of the term, for words checked without the trie.
+    static int prefixDistance(String term, String query){
+
+        int[] row = new int[query.length() + 1];
+        for (int j = 0; j <= query.length(); j++){
+            row[j] = j;
+        }
+
+        int best = row[query.length()];
+
+        for (int i = 0; i < term.length(); i++){
+            int[] nextRow = new int[row.length];
+            nextRow[0] = row[0] + 1;
+            int rowMin = nextRow[0];
+
+            for (int j = 1; j < row.length; j++){
+                int substitution = row[j - 1] + (query.charAt(j - 1) == term.charAt(i) ? 0 : 1);
+                nextRow[j] = Math.min(substitution, Math.min(row[j] + 1, nextRow[j - 1] + 1));
+                rowMin = Math.min(rowMin, nextRow[j]);
+            }
+
+            best = Math.min(best, nextRow[query.length()]);
+
+            // Longer prefixes can not do better than the smallest cell.
+            if (rowMin >= best){
+                break;
+            }
+            row = nextRow;
+        }
+
+        return best;
+    }
+
+    int nodeCount(){
+        return nodes;
+    }
+
+    long estimatedBytes(){
+        return estimatedBytes(root);
+    }
+
+
+    // best is the lowest distance of the query to a prefix of the path so far, it is the distance
+    // of every term below once no cell of the row is within maxEdits any more.
+    private void fuzzy(Node node, char key, String query, int[] previousRow, int best,
+                       int maxEdits, int maxIds, Map<Long, Integer> distances){
+
+        int[] row = new int[previousRow.length];
+        row[0] = previousRow[0] + 1;
+        int rowMin = row[0];
+
+        for (int j = 1; j < row.length; j++){
+            int substitution = previousRow[j - 1] + (query.charAt(j - 1) == key ? 0 : 1);
+            row[j] = Math.min(substitution, Math.min(previousRow[j] + 1, row[j - 1] + 1));
+            rowMin = Math.min(rowMin, row[j]);
+        }
+
+        best = Math.min(best, row[row.length - 1]);
+
+        if (rowMin > maxEdits){
+            if (best <= maxEdits){
+                collectSubtree(node, best, maxIds, distances);
+            }
+            return;
+        }
+
+        if (best <= maxEdits){
+            addIds(node, best, maxIds, distances);
+        }
+
+        for (int i = 0; i < node.keys.length && distances.size() < maxIds; i++){
+            fuzzy(node.children[i], node.keys[i], query, row, best, maxEdits, maxIds, distances);
+        }
+    }
+
+    // Breadth first, so shorter completions come before longer ones.
+    private static void collectSubtree(Node start, int distance, int maxIds, Map<Long, Integer> distances){
+
+        ArrayDeque<Node> queue = new ArrayDeque<>();
+        queue.add(start);
+
+        while (!queue.isEmpty() && distances.size() < maxIds){
+            Node node = queue.poll();
+            addIds(node, distance, maxIds, distances);
+            queue.addAll(Arrays.asList(node.children));
+        }
+    }
+
+    private static void addIds(Node node, int distance, int maxIds, Map<Long, Integer> distances){
+
+        for (int i = 0; i < node.idCount && distances.size() < maxIds; i++){
+            distances.merge(node.ids[i], distance, Math::min);
+        }
+    }
+
+    private static long estimatedBytes(Node node){
+
+        long bytes = NODE_BYTES
+                + ARRAY_BYTES + 2L * node.keys.length
+                + ARRAY_BYTES + 4L * node.children.length
+                + ARRAY_BYTES + 8L * node.ids.length;
+
+        for (Node child : node.children){
+            bytes += estimatedBytes(child);
+        }
+
+        return bytes;
+    }
+
+
+    private final class Node {
+
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+
+        private long[] ids = NO_IDS;
+        private int idCount;
+
+        private Node child(char key){
+
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node childOrCreate(char key){
+
+            int index = Arrays.binarySearch(keys, key);
+
+            if (index >= 0){
+                return children[index];
+            }
+
+            int insertAt = -index - 1;
+            Node child = new Node();
+
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = key;
+            newChildren[insertAt] = child;
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+
+            keys = newKeys;
+            children = newChildren;
+            nodes++;
+
+            return child;
+        }
+
+        private void removeChild(char key){
+
+            int index = Arrays.binarySearch(keys, key);
+
+            if (index < 0){
+                return;
+            }
+
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+
+            keys = newKeys.length == 0 ? NO_KEYS : newKeys;
+            children = newChildren.length == 0 ? NO_CHILDREN : newChildren;
+            nodes--;
+        }
+
+        private void addId(long id){
+
+            for (int i = 0; i < idCount; i++){
+                if (ids[i] == id){
+                    return;
+                }
+            }
+
+            if (idCount == ids.length){
+                ids = Arrays.copyOf(ids, Math.max(1, idCount * 2));
+            }
+
+            ids[idCount++] = id;
+        }
+
+        private void removeId(long id){
+
+            for (int i = 0; i < idCount; i++){
+                if (ids[i] == id){
+                    ids[i] = ids[--idCount];
+                    if (idCount == 0){
+                        ids = NO_IDS;
+                    }
+                    return;
+                }
+            }
+        }
+
+        private boolean isEmpty(){
+            return idCount == 0 && keys.length == 0;
+        }
+    }
+}
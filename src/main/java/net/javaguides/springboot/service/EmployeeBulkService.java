@@ -0,0 +1,13 @@
+package net.javaguides.springboot.service;
+
+import net.javaguides.springboot.dto.EmployeeBulkResult;
+import net.javaguides.springboot.dto.EmployeeBulkUpdate;
+
+import java.util.List;
+
+public interface EmployeeBulkService {
+
+    EmployeeBulkResult updateEmployees(EmployeeBulkUpdate update);
+
+    EmployeeBulkResult deleteEmployees(List<Long> ids);
+}
@@ -0,0 +1,11 @@
+package net.javaguides.springboot.service;
+
+import net.javaguides.springboot.dto.EmployeeImportSummary;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface EmployeeImportService {
+
+    EmployeeImportSummary importEmployees(InputStream csv) throws IOException;
+}
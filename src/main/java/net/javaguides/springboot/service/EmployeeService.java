@@ -1,19 +1,47 @@
 package net.javaguides.springboot.service;
 
+import net.javaguides.springboot.dto.EmployeeBatch;
+import net.javaguides.springboot.dto.EmployeeFieldsPage;
+import net.javaguides.springboot.dto.EmployeePage;
 import net.javaguides.springboot.model.Employee;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
 
     Employee saveEmployee(Employee employee);
 
+    List<Employee> saveEmployees(List<Employee> employees);
+
     List<Employee> getAllEmployees();
 
+    EmployeePage getEmployeesPage(long afterId, int size);
+
+    EmployeeFieldsPage getEmployeesPage(long afterId, int size, List<String> fields);
+
+    long exportEmployees(Consumer<? super Employee> consumer);
+
     Optional<Employee> getEployeeById(long id);
 
+    EmployeeBatch getEmployeesByIds(Collection<Long> ids);
+
+    Optional<Map<String, Object>> getEmployeeFieldsById(long id, List<String> fields);
+
+    Optional<Long> getEmployeeVersion(long id);
+
+    List<Employee> searchEmployees(String firstName, String lastName);
+
     Employee updateEmployee(Employee updatedEmployee);
 
-    void deleteEmployee(long id);
+    Optional<Employee> updateEmployee(long id, Employee employee, Collection<Long> expectedVersions);
+
+    Optional<Employee> patchEmployee(long id, Employee changes);
+
+    boolean deleteEmployee(long id);
+
+    boolean deleteEmployee(long id, long expectedVersion);
 }
@@ -0,0 +1,13 @@
+package net.javaguides.springboot.service;
+
+import net.javaguides.springboot.dto.EmployeeCreateStatus;
+import net.javaguides.springboot.model.Employee;
+
+import java.util.Optional;
+
+public interface EmployeeWriteBehindService {
+
+    EmployeeCreateStatus submit(Employee employee);
+
+    Optional<EmployeeCreateStatus> getStatus(String id);
+}
@@ -0,0 +1,29 @@
+package net.javaguides.springboot.service;
+
+import net.javaguides.springboot.dto.ReactiveEmployeePage;
+import net.javaguides.springboot.model.ReactiveEmployee;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Non-blocking counterpart of EmployeeService for the "reactive" profile,
+// an empty Mono takes the place of Optional.empty().
+public interface ReactiveEmployeeService {
+
+    Mono<ReactiveEmployee> saveEmployee(ReactiveEmployee employee);
+
+    Flux<ReactiveEmployee> saveEmployees(List<ReactiveEmployee> employees);
+
+    Mono<ReactiveEmployeePage> getEmployeesPage(long afterId, int size);
+
+    Mono<ReactiveEmployee> getEmployeeById(long id);
+
+    Flux<ReactiveEmployee> searchEmployees(String firstName, String lastName);
+
+    Mono<ReactiveEmployee> updateEmployee(ReactiveEmployee updatedEmployee);
+
+    Mono<ReactiveEmployee> patchEmployee(long id, ReactiveEmployee changes);
+
+    Mono<Boolean> deleteEmployee(long id);
+}
@@ -0,0 +1,241 @@
+package net.javaguides.springboot.service.impl;
+
+import net.javaguides.springboot.config.CacheConfig;
+import net.javaguides.springboot.dto.EmployeeBulkResult;
+import net.javaguides.springboot.dto.EmployeeBulkUpdate;
+import net.javaguides.springboot.event.EmployeesChangedEvent;
+import net.javaguides.springboot.exception.InvalidEmployeeException;
+import net.javaguides.springboot.exception.ResourceAlreadyExistsException;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeBulkService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+// Bulk updates and deletes as set-based statements: one UPDATE or DELETE per chunk of chunk-size
+// ids instead of a find and a merge or remove per employee. Every chunk is committed in its own
+// transaction, so a large change neither holds its row locks nor grows the undo log until the end;
+// a failing chunk leaves the chunks before it committed.
+// The statements bypass the entities: the employees cache is evicted per chunk after its commit and
+// EmployeesChangedEvents keep the suggest index in step, Hibernate drops its second-level and query
+// cache entries by itself.
+@Service
+@Profile("!reactive")
+public class EmployeeBulkServiceImpl implements EmployeeBulkService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeBulkServiceImpl.class);
+
+    private EmployeeRepository employeeRepository;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private CacheManager cacheManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private int chunkSize;
+
+    public EmployeeBulkServiceImpl(EmployeeRepository employeeRepository,
+                                   ApplicationEventPublisher eventPublisher,
+                                   CacheManager cacheManager,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.employees.bulk.chunk-size:500}") int chunkSize) {
+        this.employeeRepository = employeeRepository;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public EmployeeBulkResult updateEmployees(EmployeeBulkUpdate update) {
+
+        String invalid = validate(update);
+
+        if (invalid != null){
+            throw new InvalidEmployeeException(invalid);
+        }
+
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+
+        try {
+            if (update.getIds() != null){
+                for (List<Long> chunk : chunks(update.getIds())){
+                    progress.add(transactionTemplate.execute(status -> updateChunk(chunk, null, update)));
+                    evict(chunk);
+                }
+            } else {
+                // The ids are picked inside each chunk's transaction, so on the primary and with the
+                // chunks before committed; the filter is checked again by the UPDATE.
+                String emailLike = "%@" + escapeLike(update.getEmailDomain());
+                long afterId = 0;
+
+                while (true){
+                    List<Long> chunk = new ArrayList<>(chunkSize);
+                    long after = afterId;
+
+                    int updated = transactionTemplate.execute(status -> {
+                        chunk.addAll(employeeRepository.findNextIdsByEmailLike(emailLike, after, PageRequest.of(0, chunkSize)));
+                        return chunk.isEmpty() ? 0 : updateChunk(chunk, emailLike, update);
+                    });
+
+                    if (chunk.isEmpty()){
+                        break;
+                    }
+
+                    progress.add(updated);
+                    evict(chunk);
+                    afterId = chunk.get(chunk.size() - 1);
+                }
+            }
+        } catch (DataIntegrityViolationException ex){
+            // The new domain makes an email collide with an existing one: that chunk was rolled back.
+            if (update.getNewEmailDomain() != null){
+                throw new ResourceAlreadyExistsException("Employee already exists with one of the changed emails, "
+                        + progress.affected + " employees were updated before", ex);
+            }
+            throw ex;
+        }
+
+        return progress.result(start, "Updated");
+    }
+
+    @Override
+    public EmployeeBulkResult deleteEmployees(List<Long> ids) {
+
+        if (ids.isEmpty() || ids.contains(null)){
+            throw new InvalidEmployeeException("ids has to list the employees to delete");
+        }
+
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+
+        for (List<Long> chunk : chunks(ids)){
+            progress.add(transactionTemplate.execute(status -> {
+                int deleted = employeeRepository.deleteEmployeesByIds(chunk);
+                if (deleted > 0){
+                    eventPublisher.publishEvent(EmployeesChangedEvent.deleted(chunk));
+                }
+                return deleted;
+            }));
+            evict(chunk);
+        }
+
+        return progress.result(start, "Deleted");
+    }
+
+
+    // The updated employees are read back in the same transaction for the EmployeesChangedEvent, which
+    // listeners get once the chunk committed: one more IN query per chunk.
+    private int updateChunk(List<Long> ids, String emailLike, EmployeeBulkUpdate update){
+
+        int updated = employeeRepository.updateEmployees(ids, emailLike, update.getFirstName(), update.getLastName(),
+                update.getNewEmailDomain(), Instant.now());
+
+        if (updated > 0){
+            eventPublisher.publishEvent(EmployeesChangedEvent.saved(employeeRepository.findAllById(ids)));
+        }
+
+        return updated;
+    }
+
+    // After the commit, so a concurrent read can not cache the old state again.
+    private void evict(List<Long> ids){
+
+        Cache cache = cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE);
+
+        if (cache != null){
+            ids.forEach(cache::evict);
+        }
+    }
+
+    // Distinct ids in chunks of chunkSize.
+    private List<List<Long>> chunks(List<Long> ids){
+
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<List<Long>> chunks = new ArrayList<>();
+
+        for (int from = 0; from < distinctIds.size(); from += chunkSize){
+            chunks.add(distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size())));
+        }
+
+        return chunks;
+    }
+
+    // Returns why the update can not be run, null when it can.
+    private static String validate(EmployeeBulkUpdate update){
+
+        boolean byIds = update.getIds() != null;
+
+        if (byIds == (update.getEmailDomain() != null)){
+            return "Either ids or emailDomain picks the employees to update";
+        }
+        if (byIds && (update.getIds().isEmpty() || update.getIds().contains(null))){
+            return "ids has to list the employees to update";
+        }
+        if (!byIds && !isDomain(update.getEmailDomain())){
+            return "emailDomain is not a domain: " + update.getEmailDomain();
+        }
+        if (update.getFirstName() == null && update.getLastName() == null && update.getNewEmailDomain() == null){
+            return "Nothing to update, expected firstName, lastName or newEmailDomain";
+        }
+        if (update.getNewEmailDomain() != null && !isDomain(update.getNewEmailDomain())){
+            return "newEmailDomain is not a domain: " + update.getNewEmailDomain();
+        }
+        if ((update.getFirstName() != null && update.getFirstName().length() > EmployeeValidation.MAX_LENGTH)
+                || (update.getLastName() != null && update.getLastName().length() > EmployeeValidation.MAX_LENGTH)){
+            return "Values are limited to " + EmployeeValidation.MAX_LENGTH + " characters";
+        }
+
+        return null;
+    }
+
+    private static boolean isDomain(String domain){
+
+        return !domain.isEmpty()
+                && domain.length() < EmployeeValidation.MAX_LENGTH
+                && domain.chars().noneMatch(c -> c == '@' || Character.isWhitespace(c));
+    }
+
+    // '!' is the escape character of findNextIdsByEmailLike and updateEmployees.
+    private static String escapeLike(String value){
+
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+
+    private static class Progress {
+
+        private long affected;
+        private int transactions;
+
+        private void add(int rows){
+            affected += rows;
+            transactions++;
+        }
+
+        private EmployeeBulkResult result(long start, String action){
+
+            long durationMillis = (System.nanoTime() - start) / 1_000_000;
+
+            log.info("{} {} employees in {} transactions, {} ms", action, affected, transactions, durationMillis);
+
+            return new EmployeeBulkResult(affected, transactions, durationMillis);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package net.javaguides.springboot.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import net.javaguides.springboot.dto.EmployeeImportSummary;
+import net.javaguides.springboot.dto.EmployeeImportSummary.RejectedRow;
+import net.javaguides.springboot.exception.ResourceAlreadyExistsException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeImportService;
+import net.javaguides.springboot.service.EmployeeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Reads the CSV while it arrives and inserts it chunk by chunk: only one chunk of rows is held
+// at a time, and each chunk is checked against the table with a single IN query and saved in
+// its own transaction (JDBC batches of hibernate.jdbc.batch_size) through saveEmployees.
+@Service
+@Profile("!reactive")
+public class EmployeeImportServiceImpl implements EmployeeImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeImportServiceImpl.class);
+
+    // First line is the header, columns are matched by name and unknown ones are ignored.
+    private static final ObjectReader CSV_READER = new CsvMapper()
+            .readerForMapOf(String.class)
+            .with(CsvSchema.emptySchema().withHeader());
+
+    private EmployeeService employeeService;
+
+    private EmployeeRepository employeeRepository;
+
+    private int chunkSize;
+    private int maxReportedRejections;
+
+    public EmployeeImportServiceImpl(EmployeeService employeeService,
+                                     EmployeeRepository employeeRepository,
+                                     @Value("${app.employees.import.chunk-size:1000}") int chunkSize,
+                                     @Value("${app.employees.import.max-reported-rejections:100}") int maxReportedRejections) {
+        this.employeeService = employeeService;
+        this.employeeRepository = employeeRepository;
+        this.chunkSize = chunkSize;
+        this.maxReportedRejections = maxReportedRejections;
+    }
+
+    @Override
+    public EmployeeImportSummary importEmployees(InputStream csv) throws IOException {
+
+        long start = System.nanoTime();
+
+        Progress progress = new Progress();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+
+        try (MappingIterator<Map<String, String>> rows = CSV_READER.readValues(csv)) {
+
+            while (true){
+                Map<String, String> values;
+
+                try {
+                    if (!rows.hasNextValue()){
+                        break;
+                    }
+                    values = rows.nextValue();
+                } catch (JsonProcessingException ex){
+                    // A malformed row, the iterator carries on with the next line.
+                    progress.rowsRead++;
+                    progress.reject(progress.rowsRead, null, "Malformed row: " + ex.getOriginalMessage());
+                    continue;
+                }
+
+                progress.rowsRead++;
+
+                Employee employee = Employee.builder()
+                        .firstName(value(values, "firstName"))
+                        .lastName(value(values, "lastName"))
+                        .email(value(values, "email"))
+                        .build();
+
+                String invalid = EmployeeValidation.validate(employee);
+
+                if (invalid != null){
+                    progress.reject(progress.rowsRead, employee.getEmail(), invalid);
+                    continue;
+                }
+
+                chunk.add(new Row(progress.rowsRead, employee));
+
+                if (chunk.size() == chunkSize){
+                    insert(chunk, progress);
+                    chunk.clear();
+                }
+            }
+        }
+
+        if (!chunk.isEmpty()){
+            insert(chunk, progress);
+        }
+
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        double rowsPerSecond = progress.rowsRead * 1000.0 / Math.max(durationMillis, 1);
+
+        log.info("Imported {} of {} employee rows ({} rejected) in {} ms, {} rows/s",
+                progress.imported, progress.rowsRead, progress.rejected, durationMillis, Math.round(rowsPerSecond));
+
+        return new EmployeeImportSummary(progress.rowsRead, progress.imported, progress.rejected,
+                progress.rejectedRows, durationMillis, rowsPerSecond);
+    }
+
+
+    // Drops the rows whose email is taken or repeated, then saves the rest in one transaction.
+    // Emails of earlier chunks are already in the table, so repeats across chunks are found too.
+    private void insert(List<Row> chunk, Progress progress){
+
+        Set<String> existingEmails = employeeRepository.findExistingEmails(
+                chunk.stream().map(row -> row.employee.getEmail()).collect(Collectors.toSet()));
+
+        Set<String> chunkEmails = new HashSet<>();
+        List<Row> newRows = new ArrayList<>(chunk.size());
+
+        for (Row row : chunk){
+            String email = row.employee.getEmail();
+
+            if (existingEmails.contains(email)){
+                progress.reject(row.number, email, "Employee already exists with given email");
+            } else if (!chunkEmails.add(email)){
+                progress.reject(row.number, email, "Email is repeated in the file");
+            } else {
+                newRows.add(row);
+            }
+        }
+
+        if (newRows.isEmpty()){
+            return;
+        }
+
+        try {
+            employeeService.saveEmployees(newRows.stream().map(row -> row.employee).collect(Collectors.toList()));
+            progress.imported += newRows.size();
+        } catch (ResourceAlreadyExistsException ex){
+            // An email was taken after the check, by a concurrent write: the chunk was rolled back,
+            // so its rows are saved one at a time to find out which ones conflict. The saved copies
+            // start without the id and version the rolled back insert assigned.
+            for (Row row : newRows){
+                try {
+                    employeeService.saveEmployee(Employee.builder()
+                            .firstName(row.employee.getFirstName())
+                            .lastName(row.employee.getLastName())
+                            .email(row.employee.getEmail())
+                            .build());
+                    progress.imported++;
+                } catch (ResourceAlreadyExistsException rowEx){
+                    progress.reject(row.number, row.employee.getEmail(), "Employee already exists with given email");
+                }
+            }
+        }
+    }
+
+    // Trimmed column value, null when the column is missing or blank.
+    private static String value(Map<String, String> values, String column){
+
+        String value = values.get(column);
+
+        if (value == null || value.isBlank()){
+            return null;
+        }
+
+        return value.trim();
+    }
+
+
+    private static class Row {
+
+        private final long number;
+        private final Employee employee;
+
+        private Row(long number, Employee employee) {
+            this.number = number;
+            this.employee = employee;
+        }
+    }
+
+    private class Progress {
+
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+        private List<RejectedRow> rejectedRows = new ArrayList<>();
+
+        private void reject(long row, String email, String reason){
+
+            rejected++;
+
+            if (rejectedRows.size() < maxReportedRejections){
+                rejectedRows.add(new RejectedRow(row, email, reason));
+            }
+        }
+    }
+
+}
@@ -1,34 +1,102 @@
 package net.javaguides.springboot.service.impl;
 
-import net.javaguides.springboot.exception.ResourceNotFoundException;
+import net.javaguides.springboot.config.CacheConfig;
+import net.javaguides.springboot.dto.EmployeeBatch;
+import net.javaguides.springboot.dto.EmployeeFieldsPage;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.event.EmployeesChangedEvent;
+import net.javaguides.springboot.exception.PreconditionFailedException;
+import net.javaguides.springboot.exception.ResourceAlreadyExistsException;
+import net.javaguides.springboot.exception.UnknownFieldException;
+import net.javaguides.springboot.exception.VersionConflictException;
 import net.javaguides.springboot.model.Employee;
 import net.javaguides.springboot.repository.EmployeeRepository;
 import net.javaguides.springboot.service.EmployeeService;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
+// Read-only by default so reads can be routed to a replica (see DataSourceRoutingConfig), writes override it.
 @Service
+@Profile("!reactive")
+@Transactional(readOnly = true)
 public class EmployeeServiceImpl implements EmployeeService {
 
+    private static final String EMAIL_CONSTRAINT = "uk_employees_email";
+
+    // Employee properties that can be requested as sparse fieldsets.
+    private static final Set<String> FIELDS = Set.of("id", "firstName", "lastName", "email", "version", "updatedAt");
+
+    // Ids per IN query of getEmployeesByIds, keeps the statement and its plan cache entry bounded.
+    private static final int IDS_PER_QUERY = 500;
+
     private EmployeeRepository employeeRepository;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+    // Writes publish an EmployeesChangedEvent, e.g. for the suggest index.
+    private ApplicationEventPublisher eventPublisher;
+
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository, ApplicationEventPublisher eventPublisher) {
         this.employeeRepository = employeeRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#result.id")
     public Employee saveEmployee(Employee employee) {
 
-        Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
+        // A single insert: the unique index on email rejects duplicates, also between concurrent creates.
+        try {
+            return published(employeeRepository.saveAndFlush(employee));
+        } catch (DataIntegrityViolationException ex){
+            throw duplicateEmail(ex, "Employee already exists with given email: " + employee.getEmail());
+        }
+    }
+
+    // Saves the whole list in one transaction, so Hibernate can send the inserts as JDBC batches.
+    @Override
+    @Transactional
+    public List<Employee> saveEmployees(List<Employee> employees) {
 
-        if (savedEmployee.isPresent()){
-            throw new ResourceNotFoundException("Employee already exists with given email: " + employee.getEmail());
+        Set<String> emails = new HashSet<>();
+
+        for (Employee employee : employees){
+            if (!emails.add(employee.getEmail())){
+                throw new ResourceAlreadyExistsException("Employee email is repeated in the batch: " + employee.getEmail());
+            }
         }
 
-        return employeeRepository.save(employee);
+        // Flush inside the method so a unique index violation can be translated here.
+        try {
+            List<Employee> savedEmployees = employeeRepository.saveAll(employees);
+            employeeRepository.flush();
+            eventPublisher.publishEvent(EmployeesChangedEvent.saved(savedEmployees));
+            return savedEmployees;
+        } catch (DataIntegrityViolationException ex){
+            throw duplicateEmail(ex, "Employee already exists with one of the given emails");
+        }
     }
 
     @Override
@@ -39,23 +107,295 @@ public class EmployeeServiceImpl implements EmployeeService {
     }
 
     @Override
+    public EmployeePage getEmployeesPage(long afterId, int size) {
+
+        // Fetch one extra row to find out whether there is a next page without a count query.
+        List<Employee> employees = employeeRepository.findNextPage(afterId, PageRequest.of(0, size + 1));
+
+        if (employees.size() <= size){
+            return new EmployeePage(employees, null);
+        }
+
+        List<Employee> page = new ArrayList<>(employees.subList(0, size));
+        return new EmployeePage(page, page.get(size - 1).getId());
+    }
+
+    // The keyset needs the id, so it is always selected and only dropped afterwards when not requested.
+    @Override
+    public EmployeeFieldsPage getEmployeesPage(long afterId, int size, List<String> fields) {
+
+        List<String> selectedFields = checkFields(fields);
+        boolean idRequested = selectedFields.contains("id");
+
+        if (!idRequested){
+            selectedFields.add(0, "id");
+        }
+
+        List<Map<String, Object>> employees = employeeRepository.findNextPageFields(afterId, size + 1, selectedFields);
+
+        Long nextCursor = null;
+
+        if (employees.size() > size){
+            employees = new ArrayList<>(employees.subList(0, size));
+            nextCursor = (Long) employees.get(size - 1).get("id");
+        }
+
+        if (!idRequested){
+            employees.forEach(employee -> employee.remove("id"));
+        }
+
+        return new EmployeeFieldsPage(employees, nextCursor);
+    }
+
+    // Streams inside one read-only transaction, the cursor is closed before it ends.
+    @Override
+    public long exportEmployees(Consumer<? super Employee> consumer) {
+
+        return employeeRepository.streamAll(consumer);
+    }
+
+    // Misses are not cached, so new employees never have to evict a cached "not found".
+    // Not read-only: the result is kept in the "employees" cache, a row read from a lagging replica could be
+    // an old version or one deleted on the primary already, and it would be served until the entry expires.
+    @Override
+    @Transactional
+    @Cacheable(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id", unless = "#result == null")
     public Optional<Employee> getEployeeById(long id) {
 
         return employeeRepository.findById(id);
 
     }
 
+    // One IN query per chunk of ids instead of a findById per id. Repeated ids are looked up once
+    // and returned once, at their first position.
+    @Override
+    public EmployeeBatch getEmployeesByIds(Collection<Long> ids) {
+
+        List<Long> uniqueIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, Employee> employeesById = new HashMap<>();
+
+        for (int from = 0; from < uniqueIds.size(); from += IDS_PER_QUERY){
+            List<Long> chunk = uniqueIds.subList(from, Math.min(from + IDS_PER_QUERY, uniqueIds.size()));
+
+            employeeRepository.findAllById(chunk)
+                    .forEach(employee -> employeesById.put(employee.getId(), employee));
+        }
+
+        List<Employee> employees = new ArrayList<>(employeesById.size());
+        List<Long> missingIds = new ArrayList<>();
+
+        for (Long id : uniqueIds){
+            Employee employee = employeesById.get(id);
+
+            if (employee != null){
+                employees.add(employee);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        return new EmployeeBatch(employees, missingIds);
+    }
+
+    // Not cached, the query only selects the requested columns.
+    @Override
+    public Optional<Map<String, Object>> getEmployeeFieldsById(long id, List<String> fields) {
+
+        return employeeRepository.findFieldsById(id, checkFields(fields));
+    }
+
+    // A primary key lookup of a single column, cheaper than loading and serializing the employee.
+    @Override
+    public Optional<Long> getEmployeeVersion(long id) {
+
+        return employeeRepository.findVersionById(id);
+    }
+
+    @Override
+    public List<Employee> searchEmployees(String firstName, String lastName) {
+
+        return employeeRepository.findByLastNameAndFirstName(lastName, firstName);
+
+    }
+
+    // Evicts first, so a failed update never leaves a stale entry behind.
     @Override
+    @Transactional
+    @Caching(evict = @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#updatedEmployee.id", beforeInvocation = true),
+            put = @CachePut(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#result.id"))
     public Employee updateEmployee(Employee updatedEmployee) {
 
-        return employeeRepository.save(updatedEmployee);
+        try {
+            return published(employeeRepository.saveAndFlush(updatedEmployee));
+        } catch (DataIntegrityViolationException ex){
+            throw duplicateEmail(ex, "Employee already exists with given email: " + updatedEmployee.getEmail());
+        } catch (OptimisticLockingFailureException ex){
+            throw new VersionConflictException("Employee was modified concurrently: " + updatedEmployee.getId(), ex);
+        }
+    }
+
+    // Replaces the names and the email of the stored employee, read in the same transaction as the UPDATE.
+    // With expectedVersions (If-Match) the stored version has to be one of them.
+    @Override
+    @Transactional
+    @Caching(evict = @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id", beforeInvocation = true),
+            put = @CachePut(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id", unless = "#result == null"))
+    public Optional<Employee> updateEmployee(long id, Employee employee, Collection<Long> expectedVersions) {
+
+        Optional<Employee> savedEmployee = employeeRepository.findById(id);
+
+        if (savedEmployee.isEmpty()){
+            return savedEmployee;
+        }
+
+        Employee updatedEmployee = savedEmployee.get();
+
+        if (expectedVersions != null && !expectedVersions.contains(updatedEmployee.getVersion())){
+            throw new PreconditionFailedException("Employee " + id + " is at version " + updatedEmployee.getVersion());
+        }
+
+        updatedEmployee.setFirstName(employee.getFirstName());
+        updatedEmployee.setLastName(employee.getLastName());
+        updatedEmployee.setEmail(employee.getEmail());
+
+        try {
+            return Optional.of(published(employeeRepository.saveAndFlush(updatedEmployee)));
+        } catch (DataIntegrityViolationException ex){
+            throw duplicateEmail(ex, "Employee already exists with given email: " + employee.getEmail());
+        } catch (OptimisticLockingFailureException ex){
+            throw new VersionConflictException("Employee was modified concurrently: " + id, ex);
+        }
+    }
+
+    // One SELECT and one UPDATE of the changed columns only, in a single transaction.
+    // Null fields of changes are left untouched; a given version must match the stored one.
+    @Override
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id", unless = "#result == null")
+    public Optional<Employee> patchEmployee(long id, Employee changes) {
+
+        Optional<Employee> savedEmployee = employeeRepository.findById(id);
+
+        if (savedEmployee.isEmpty()){
+            return savedEmployee;
+        }
+
+        Employee employee = savedEmployee.get();
+
+        if (changes.getVersion() != null && !changes.getVersion().equals(employee.getVersion())){
+            throw new VersionConflictException("Employee " + id + " is at version " + employee.getVersion()
+                    + ", not " + changes.getVersion());
+        }
+
+        if (changes.getFirstName() != null){
+            employee.setFirstName(changes.getFirstName());
+        }
+        if (changes.getLastName() != null){
+            employee.setLastName(changes.getLastName());
+        }
+        if (changes.getEmail() != null){
+            employee.setEmail(changes.getEmail());
+        }
+
+        // Flush inside the method so constraint and version failures can be translated here.
+        try {
+            return Optional.of(published(employeeRepository.saveAndFlush(employee)));
+        } catch (DataIntegrityViolationException ex){
+            throw duplicateEmail(ex, "Employee already exists with given email: " + employee.getEmail());
+        } catch (OptimisticLockingFailureException ex){
+            throw new VersionConflictException("Employee was modified concurrently: " + id, ex);
+        }
+    }
+
+    // Returns false when there was no employee with the given id.
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id")
+    public boolean deleteEmployee(long id) {
+
+        try {
+            if (employeeRepository.deleteEmployee(id, null) == 0){
+                return false;
+            }
+        } catch (OptimisticLockingFailureException ex){
+            throw new VersionConflictException("Employee was modified concurrently: " + id, ex);
+        }
+
+        eventPublisher.publishEvent(EmployeesChangedEvent.deleted(id));
+        return true;
     }
 
+    // Deletes only at the expected version: false when there is no such employee,
+    // PreconditionFailedException when it exists at another version.
     @Override
-    public void deleteEmployee(long id) {
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id")
+    public boolean deleteEmployee(long id, long expectedVersion) {
+
+        try {
+            if (employeeRepository.deleteEmployee(id, expectedVersion) > 0){
+                eventPublisher.publishEvent(EmployeesChangedEvent.deleted(id));
+                return true;
+            }
+        } catch (OptimisticLockingFailureException ex){
+            throw new PreconditionFailedException("Employee " + id + " changed, it is no longer at version "
+                    + expectedVersion, ex);
+        }
+
+        Optional<Long> version = employeeRepository.findVersionById(id);
 
-        employeeRepository.deleteById(id);
+        if (version.isPresent()){
+            throw new PreconditionFailedException("Employee " + id + " is at version " + version.get()
+                    + ", not " + expectedVersion);
+        }
+
+        return false;
     }
 
 
+    private Employee published(Employee savedEmployee){
+
+        eventPublisher.publishEvent(EmployeesChangedEvent.saved(List.of(savedEmployee)));
+        return savedEmployee;
+    }
+
+    // Trimmed, without repeats and in the requested order; unknown or missing fields are a 400.
+    private static List<String> checkFields(List<String> fields){
+
+        Set<String> checkedFields = new LinkedHashSet<>();
+
+        for (String field : fields){
+            String name = field.trim();
+
+            if (name.isEmpty()){
+                continue;
+            }
+            if (!FIELDS.contains(name)){
+                throw new UnknownFieldException("Unknown employee field: " + name + ", expected one of " + FIELDS);
+            }
+
+            checkedFields.add(name);
+        }
+
+        if (checkedFields.isEmpty()){
+            throw new UnknownFieldException("No employee fields requested, expected some of " + FIELDS);
+        }
+
+        return new ArrayList<>(checkedFields);
+    }
+
+    // Turns a violation of the unique email index into a 409, anything else is rethrown as is.
+    private static RuntimeException duplicateEmail(DataIntegrityViolationException ex, String message){
+
+        if (ex.getCause() instanceof ConstraintViolationException){
+            String constraintName = ((ConstraintViolationException) ex.getCause()).getConstraintName();
+
+            if (constraintName != null && constraintName.toLowerCase(Locale.ROOT).contains(EMAIL_CONSTRAINT)){
+                return new ResourceAlreadyExistsException(message, ex);
+            }
+        }
+
+        return ex;
+    }
+
 }
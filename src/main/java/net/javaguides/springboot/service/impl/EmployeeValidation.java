@@ -0,0 +1,34 @@
+package net.javaguides.springboot.service.impl;
+
+import net.javaguides.springboot.model.Employee;
+
+// Checks of a new employee that are made before it reaches the database.
+final class EmployeeValidation {
+
+    // Column length of first_name, last_name and email.
+    static final int MAX_LENGTH = 255;
+
+    private EmployeeValidation() {
+    }
+
+    // Returns why the employee can not be saved, null when it can.
+    static String validate(Employee employee){
+
+        if (employee.getFirstName() == null){
+            return "firstName is required";
+        }
+        if (employee.getLastName() == null){
+            return "lastName is required";
+        }
+        if (employee.getEmail() == null){
+            return "email is required";
+        }
+        if (employee.getFirstName().length() > MAX_LENGTH
+                || employee.getLastName().length() > MAX_LENGTH
+                || employee.getEmail().length() > MAX_LENGTH){
+            return "Values are limited to " + MAX_LENGTH + " characters";
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,312 @@
+package net.javaguides.springboot.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import net.javaguides.springboot.dto.EmployeeCreateStatus;
+import net.javaguides.springboot.dto.EmployeeCreateStatus.State;
+import net.javaguides.springboot.exception.InvalidEmployeeException;
+import net.javaguides.springboot.exception.QueueFullException;
+import net.javaguides.springboot.exception.ResourceAlreadyExistsException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeService;
+import net.javaguides.springboot.service.EmployeeWriteBehindService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Write-behind creates: submit() only validates the employee, reserves its email in memory and
+// queues it, a single flusher thread saves the queue in batches of up to flush-size employees
+// through saveEmployees (JDBC batches, multi-row inserts on MySQL with rewriteBatchedStatements).
+// A batch is flushed when it is full or flush-interval after its first employee was taken.
+// Queued employees are lost if the process dies, which is why this is opt-in.
+@Service
+@Profile("!reactive")
+@ConditionalOnProperty(name = "app.employees.write-behind.enabled", havingValue = "true")
+public class EmployeeWriteBehindServiceImpl implements EmployeeWriteBehindService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeWriteBehindServiceImpl.class);
+
+    private static final String METRIC_PREFIX = "employee.write-behind";
+
+    private EmployeeService employeeService;
+
+    private int flushSize;
+    private long flushIntervalMs;
+
+    private final BlockingQueue<Ticket> queue;
+
+    // Emails (lower cased, like the default MySQL collation compares them) of the queued employees.
+    private final ConcurrentMap<String, Ticket> reservedEmails = new ConcurrentHashMap<>();
+
+    // Finished tickets are kept for status-ttl-seconds, so clients can look up the outcome.
+    private final Cache<String, Ticket> tickets;
+
+    private final Counter rejected;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    // Set before running is cleared, submit() refuses tickets from then on since the flusher may be gone.
+    private volatile boolean stopped;
+    private Thread flusher;
+
+    public EmployeeWriteBehindServiceImpl(EmployeeService employeeService,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${app.employees.write-behind.queue-depth:10000}") int queueDepth,
+                                          @Value("${app.employees.write-behind.flush-size:500}") int flushSize,
+                                          @Value("${app.employees.write-behind.flush-interval-ms:200}") long flushIntervalMs,
+                                          @Value("${app.employees.write-behind.status-ttl-seconds:600}") long statusTtlSeconds) {
+        this.employeeService = employeeService;
+        this.flushSize = flushSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.queue = new ArrayBlockingQueue<>(queueDepth);
+        this.tickets = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(statusTtlSeconds))
+                .build();
+
+        Gauge.builder(METRIC_PREFIX + ".queue.size", queue, BlockingQueue::size)
+                .description("Employees waiting to be flushed")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queue.depth", () -> queueDepth)
+                .description("Capacity of the write-behind queue, further creates get a 429")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".flush.size", () -> flushSize)
+                .description("Largest number of employees inserted per flush")
+                .register(meterRegistry);
+        TimeGauge.builder(METRIC_PREFIX + ".flush.interval", () -> flushIntervalMs, TimeUnit.MILLISECONDS)
+                .description("Longest wait for a batch to fill up before it is flushed")
+                .register(meterRegistry);
+        this.rejected = Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("Creates refused because the queue was full")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder(METRIC_PREFIX + ".batch")
+                .description("Employees inserted per flush")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stopped = false;
+        running = true;
+        flusher = new Thread(this::drain, "employee-write-behind");
+        flusher.start();
+    }
+
+    // Flushes what is still queued before the datasource goes away.
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopped = true;
+        running = false;
+        if (flusher != null){
+            flusher.join();
+        }
+    }
+
+    @Override
+    public EmployeeCreateStatus submit(Employee employee) {
+
+        // Only the values are taken, id and version are assigned by the insert.
+        Employee newEmployee = Employee.builder()
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .build();
+
+        String invalid = EmployeeValidation.validate(newEmployee);
+
+        if (invalid != null){
+            throw new InvalidEmployeeException(invalid);
+        }
+
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), newEmployee);
+
+        if (reservedEmails.putIfAbsent(ticket.emailKey(), ticket) != null){
+            throw new ResourceAlreadyExistsException("Employee is already being created with given email: " + newEmployee.getEmail());
+        }
+
+        if (stopped){
+            reservedEmails.remove(ticket.emailKey(), ticket);
+            throw new QueueFullException("Employee write-behind queue is stopped, retry later");
+        }
+
+        tickets.put(ticket.id, ticket);
+
+        if (!queue.offer(ticket)){
+            tickets.invalidate(ticket.id);
+            reservedEmails.remove(ticket.emailKey(), ticket);
+            rejected.increment();
+            throw new QueueFullException("Employee write-behind queue is full, retry later");
+        }
+
+        // stop() may have come in between the check and the offer, after the flusher saw an empty
+        // queue for the last time. If the ticket can still be taken back nobody is going to flush it.
+        if (stopped && queue.remove(ticket)){
+            tickets.invalidate(ticket.id);
+            reservedEmails.remove(ticket.emailKey(), ticket);
+            throw new QueueFullException("Employee write-behind queue is stopped, retry later");
+        }
+
+        return ticket.status();
+    }
+
+    @Override
+    public Optional<EmployeeCreateStatus> getStatus(String id) {
+
+        return Optional.ofNullable(tickets.getIfPresent(id)).map(Ticket::status);
+    }
+
+
+    private void drain(){
+
+        List<Ticket> batch = new ArrayList<>(flushSize);
+
+        while (running || !queue.isEmpty()){
+            try {
+                Ticket first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+
+                if (first == null){
+                    continue;
+                }
+
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+
+                while (batch.size() < flushSize){
+                    queue.drainTo(batch, flushSize - batch.size());
+
+                    long waitNanos = deadline - System.nanoTime();
+                    if (batch.size() == flushSize || waitNanos <= 0 || !running){
+                        break;
+                    }
+
+                    Ticket next = queue.poll(waitNanos, TimeUnit.NANOSECONDS);
+                    if (next != null){
+                        batch.add(next);
+                    }
+                }
+
+                flush(batch);
+            } catch (InterruptedException ex){
+                // Blocking polls keep failing while the interrupt flag is set, so what is still
+                // queued is taken without waiting and the flusher exits afterwards.
+                Thread.currentThread().interrupt();
+                stopped = true;
+                running = false;
+                drainRemaining(batch);
+                return;
+            } catch (RuntimeException ex){
+                log.error("Write-behind flush of {} employees failed", batch.size(), ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void drainRemaining(List<Ticket> batch){
+
+        do {
+            queue.drainTo(batch, flushSize - batch.size());
+            try {
+                flush(batch);
+            } catch (RuntimeException ex){
+                log.error("Write-behind flush of {} employees failed", batch.size(), ex);
+            } finally {
+                batch.clear();
+            }
+        } while (!queue.isEmpty());
+    }
+
+    private void flush(List<Ticket> batch){
+
+        if (batch.isEmpty()){
+            return;
+        }
+
+        try {
+            List<Employee> savedEmployees = employeeService.saveEmployees(
+                    batch.stream().map(ticket -> ticket.employee).collect(Collectors.toList()));
+
+            for (int i = 0; i < batch.size(); i++){
+                batch.get(i).created(savedEmployees.get(i).getId());
+            }
+        } catch (ResourceAlreadyExistsException ex){
+            // An email exists in the table already: the batch was rolled back, so it is saved one
+            // employee at a time to find out which ones conflict. The saved copies start without
+            // the id and version the rolled back insert assigned.
+            for (Ticket ticket : batch){
+                try {
+                    ticket.created(employeeService.saveEmployee(Employee.builder()
+                            .firstName(ticket.employee.getFirstName())
+                            .lastName(ticket.employee.getLastName())
+                            .email(ticket.employee.getEmail())
+                            .build()).getId());
+                } catch (RuntimeException rowEx){
+                    ticket.failed(rowEx.getMessage());
+                }
+            }
+        } catch (RuntimeException ex){
+            log.error("Write-behind insert of {} employees failed", batch.size(), ex);
+            batch.forEach(ticket -> ticket.failed(ex.getMessage()));
+        } finally {
+            // Saved emails are guarded by the unique index from now on.
+            batch.forEach(ticket -> reservedEmails.remove(ticket.emailKey(), ticket));
+            batchSizes.record(batch.size());
+        }
+    }
+
+
+    private static class Ticket {
+
+        private final String id;
+        private final Employee employee;
+
+        private volatile State state = State.PENDING;
+        private volatile Long employeeId;
+        private volatile String reason;
+
+        private Ticket(String id, Employee employee) {
+            this.id = id;
+            this.employee = employee;
+        }
+
+        private String emailKey(){
+            return employee.getEmail().toLowerCase(Locale.ROOT);
+        }
+
+        private void created(long employeeId){
+            this.employeeId = employeeId;
+            this.state = State.CREATED;
+        }
+
+        private void failed(String reason){
+            this.reason = reason;
+            this.state = State.FAILED;
+        }
+
+        private EmployeeCreateStatus status(){
+            return new EmployeeCreateStatus(id, state, employeeId, reason);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package net.javaguides.springboot.service.impl;
+
+import net.javaguides.springboot.dto.ReactiveEmployeePage;
+import net.javaguides.springboot.exception.ResourceAlreadyExistsException;
+import net.javaguides.springboot.exception.VersionConflictException;
+import net.javaguides.springboot.model.ReactiveEmployee;
+import net.javaguides.springboot.repository.ReactiveEmployeeIdGenerator;
+import net.javaguides.springboot.repository.ReactiveEmployeeRepository;
+import net.javaguides.springboot.service.ReactiveEmployeeService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Same rules as EmployeeServiceImpl (unique email, optimistic locking, keyset pages) on R2DBC.
+// There is no cache: Spring's cache abstraction does not handle Mono/Flux results.
+@Service
+@Profile("reactive")
+public class ReactiveEmployeeServiceImpl implements ReactiveEmployeeService {
+
+    private static final String EMAIL_CONSTRAINT = "uk_employees_email";
+
+    private ReactiveEmployeeRepository employeeRepository;
+    private ReactiveEmployeeIdGenerator idGenerator;
+
+    public ReactiveEmployeeServiceImpl(ReactiveEmployeeRepository employeeRepository, ReactiveEmployeeIdGenerator idGenerator) {
+        this.employeeRepository = employeeRepository;
+        this.idGenerator = idGenerator;
+    }
+
+    @Override
+    public Mono<ReactiveEmployee> saveEmployee(ReactiveEmployee employee) {
+
+        return insert(employee)
+                .onErrorMap(DataIntegrityViolationException.class,
+                        ex -> duplicateEmail(ex, "Employee already exists with given email: " + employee.getEmail()));
+    }
+
+    @Override
+    @Transactional
+    public Flux<ReactiveEmployee> saveEmployees(List<ReactiveEmployee> employees) {
+
+        Set<String> emails = new HashSet<>();
+
+        for (ReactiveEmployee employee : employees){
+            if (!emails.add(employee.getEmail())){
+                return Flux.error(new ResourceAlreadyExistsException("Employee email is repeated in the batch: " + employee.getEmail()));
+            }
+        }
+
+        return Flux.fromIterable(employees)
+                .concatMap(this::insert)
+                .onErrorMap(DataIntegrityViolationException.class,
+                        ex -> duplicateEmail(ex, "Employee already exists with one of the given emails"));
+    }
+
+    @Override
+    public Mono<ReactiveEmployeePage> getEmployeesPage(long afterId, int size) {
+
+        // Fetch one extra row to find out whether there is a next page without a count query.
+        return employeeRepository.findNextPage(afterId, size + 1)
+                .collectList()
+                .map(employees -> {
+                    if (employees.size() <= size){
+                        return new ReactiveEmployeePage(employees, null);
+                    }
+
+                    List<ReactiveEmployee> page = new ArrayList<>(employees.subList(0, size));
+                    return new ReactiveEmployeePage(page, page.get(size - 1).getId());
+                });
+    }
+
+    @Override
+    public Mono<ReactiveEmployee> getEmployeeById(long id) {
+
+        return employeeRepository.findById(id);
+
+    }
+
+    @Override
+    public Flux<ReactiveEmployee> searchEmployees(String firstName, String lastName) {
+
+        return employeeRepository.findByLastNameAndFirstName(lastName, firstName);
+
+    }
+
+    // The UPDATE is conditional on the version, a concurrent change makes it fail with 409.
+    @Override
+    public Mono<ReactiveEmployee> updateEmployee(ReactiveEmployee updatedEmployee) {
+
+        updatedEmployee.setUpdatedAt(Instant.now());
+
+        return employeeRepository.save(updatedEmployee)
+                .onErrorMap(DataIntegrityViolationException.class,
+                        ex -> duplicateEmail(ex, "Employee already exists with given email: " + updatedEmployee.getEmail()))
+                .onErrorMap(OptimisticLockingFailureException.class,
+                        ex -> new VersionConflictException("Employee was modified concurrently: " + updatedEmployee.getId(), ex));
+    }
+
+    // Null fields of changes are left untouched; a given version must match the stored one.
+    @Override
+    @Transactional
+    public Mono<ReactiveEmployee> patchEmployee(long id, ReactiveEmployee changes) {
+
+        return employeeRepository.findById(id)
+                .flatMap(employee -> {
+
+                    if (changes.getVersion() != null && !changes.getVersion().equals(employee.getVersion())){
+                        return Mono.error(new VersionConflictException("Employee " + id + " is at version "
+                                + employee.getVersion() + ", not " + changes.getVersion()));
+                    }
+
+                    if (changes.getFirstName() != null){
+                        employee.setFirstName(changes.getFirstName());
+                    }
+                    if (changes.getLastName() != null){
+                        employee.setLastName(changes.getLastName());
+                    }
+                    if (changes.getEmail() != null){
+                        employee.setEmail(changes.getEmail());
+                    }
+
+                    return updateEmployee(employee);
+                });
+    }
+
+    // Emits false when there was no employee with the given id.
+    @Override
+    public Mono<Boolean> deleteEmployee(long id) {
+
+        return employeeRepository.deleteEmployeeById(id).map(deleted -> deleted > 0);
+    }
+
+
+    // A null version marks the employee as new for Spring Data, so save() inserts it with the allocated id.
+    private Mono<ReactiveEmployee> insert(ReactiveEmployee employee){
+
+        return idGenerator.nextId()
+                .flatMap(id -> {
+                    employee.setId(id);
+                    employee.setVersion(null);
+                    employee.setUpdatedAt(Instant.now());
+                    return employeeRepository.save(employee);
+                });
+    }
+
+    // Turns a violation of the unique email index into a 409, anything else is passed on as is.
+    // R2DBC drivers only report the index in the message.
+    private static Throwable duplicateEmail(DataIntegrityViolationException ex, String message){
+
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()){
+            if (cause.getMessage() != null && cause.getMessage().toLowerCase(Locale.ROOT).contains(EMAIL_CONSTRAINT)){
+                return new ResourceAlreadyExistsException(message, ex);
+            }
+        }
+
+        return ex;
+    }
+
+}
@@ -0,0 +1,22 @@
+-- Employees table as previously generated by hibernate.ddl-auto. Only created when missing:
+-- a table that ddl-auto built before Flyway (baseline-on-migrate starts such databases at
+-- version 0) is kept as it is here and brought up to date by V4.
+
+create table if not exists employees (
+    id bigint not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    email varchar(255) not null,
+    version bigint not null,
+    primary key (id),
+    constraint uk_employees_email unique (email)
+);
+
+-- Id blocks for the pooled-lo employees_seq generator (see Employee.id).
+create table if not exists employees_seq (
+    next_val bigint
+);
+
+insert into employees_seq (next_val)
+select coalesce(max(id), 0) + 1 from employees
+having (select count(*) from employees_seq) = 0;
@@ -0,0 +1,4 @@
+-- Name lookups (findByJPQL, findByNativeSQL, /api/employees/search ...) filter on
+-- last_name and first_name; last_name first so it also serves last-name-only lookups.
+
+create index idx_employees_last_first on employees (last_name, first_name);
@@ -0,0 +1,4 @@
+-- Last change of an employee, served as Last-Modified next to the version based ETag.
+-- Existing rows start at the time of the migration.
+
+alter table employees add column updated_at datetime(6) not null default current_timestamp(6);
@@ -0,0 +1,88 @@
+package net.javaguides.springboot.benchmark;
+
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Compares rows/sec of one insert per call against batched inserts.
+// Not picked up by the default test run, start it with:
+//   mvn test -Dtest=EmployeeInsertBenchmark -Dbenchmark.rows=20000 -Dbenchmark.batch=1000
+@SpringBootTest
+public class EmployeeInsertBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000);
+    private static final int BATCH = Integer.getInteger("benchmark.batch", 1_000);
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    private void setup(){
+        employeeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void singleVersusBatchedInserts(){
+
+        // warm up the JIT, the connection pool and the id allocator
+        insertOneByOne("warmup", BATCH);
+        insertInBatches("warmup-batch", BATCH);
+        employeeRepository.deleteAllInBatch();
+
+        long single = insertOneByOne("single", ROWS);
+        long batched = insertInBatches("batched", ROWS);
+
+        System.out.printf("%n%-10s %10s %12s %12s%n", "mode", "rows", "millis", "rows/sec");
+        print("single", single);
+        print("batched", batched);
+        System.out.printf("speedup: %.1fx%n%n", (double) single / batched);
+    }
+
+    private long insertOneByOne(String prefix, int rows){
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < rows; i++){
+            employeeService.saveEmployee(employee(prefix, i));
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    private long insertInBatches(String prefix, int rows){
+
+        long start = System.nanoTime();
+
+        for (int from = 0; from < rows; from += BATCH){
+            List<Employee> batch = new ArrayList<>(BATCH);
+            for (int i = from; i < Math.min(from + BATCH, rows); i++){
+                batch.add(employee(prefix, i));
+            }
+            employeeService.saveEmployees(batch);
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    private static Employee employee(String prefix, int i){
+        return Employee.builder()
+                .firstName("First" + i)
+                .lastName("Last" + i)
+                .email(prefix + "." + i + "@example.com")
+                .build();
+    }
+
+    private static void print(String mode, long nanos){
+        System.out.printf("%-10s %10d %12d %12.0f%n", mode, ROWS, nanos / 1_000_000, ROWS / (nanos / 1e9));
+    }
+}
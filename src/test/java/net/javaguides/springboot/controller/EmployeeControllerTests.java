@@ -2,7 +2,18 @@ package net.javaguides.springboot.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.dto.EmployeeBatch;
+import net.javaguides.springboot.exception.PreconditionFailedException;
+import net.javaguides.springboot.dto.EmployeeFieldsPage;
+import net.javaguides.springboot.dto.EmployeeImportSummary;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.dto.EmployeeSuggestion;
+import net.javaguides.springboot.exception.ResourceAlreadyExistsException;
+import net.javaguides.springboot.exception.UnknownFieldException;
+import net.javaguides.springboot.exception.VersionConflictException;
 import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.search.EmployeeSuggestIndex;
+import net.javaguides.springboot.service.EmployeeImportService;
 import net.javaguides.springboot.service.EmployeeService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,16 +25,22 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
-import static org.mockito.BDDMockito.willDoNothing;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.containsString;
 
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
 
 @WebMvcTest(EmployeeController.class)   // For testing  the EmployeeController class only.
 public class EmployeeControllerTests {
@@ -35,6 +52,12 @@ public class EmployeeControllerTests {
     // add it to the application context, so that it's injected into EmployeeController.
     private EmployeeService employeeService;
 
+    @MockBean
+    private EmployeeImportService employeeImportService;
+
+    @MockBean
+    private EmployeeSuggestIndex employeeSuggestIndex;
+
     @Autowired
     private ObjectMapper objectMapper;  //Serialize and deserialize java objects.
 
@@ -72,6 +95,78 @@ public class EmployeeControllerTests {
     }
 
 
+    //JUnit test for create employee with an existing email
+    @DisplayName("JUnit test for create employee with an existing email")
+    @Test
+    public void givenExistingEmail_whenCreateEmployee_thenReturnConflict() throws Exception {
+
+        // given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("ramesh@gmail.com")
+                .build();
+
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willThrow(new ResourceAlreadyExistsException("Employee already exists with given email: ramesh@gmail.com"));
+
+        // when - action or behavior we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        // then - verify the result of output using assert statements
+        response.andDo(print())
+                .andExpect(status().isConflict());
+
+    }
+
+
+    //JUnit test for batch create employees
+    @DisplayName("JUnit test for batch create employees")
+    @Test
+    public void givenListOfEmployees_whenCreateEmployees_thenReturnSavedEmployees() throws Exception {
+
+        // given - precondition or setup
+        List<Employee> listOfEmployee = List.of(
+                Employee.builder().firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build(),
+                Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build()
+        );
+
+        given(employeeService.saveEmployees(anyList()))
+                .willAnswer((invocation) -> invocation.getArgument(0));
+
+        // when - action or behavior we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(listOfEmployee)));
+
+        // then - verify the result of output using assert statements
+        response.andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.size()", is(listOfEmployee.size())))
+                .andExpect(jsonPath("$[1].email", is("tony@gmail.com")));
+
+    }
+
+
+    //JUnit test for batch create employees with an empty batch
+    @DisplayName("JUnit test for batch create employees with an empty batch")
+    @Test
+    public void givenEmptyList_whenCreateEmployees_thenReturnBadRequest() throws Exception {
+
+        // when - action or behavior we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"));
+
+        // then - verify the result of output using assert statements
+        response.andDo(print())
+                .andExpect(status().isBadRequest());
+
+    }
+
+
     //JUnit test for get all employees
     @DisplayName("JUnit test for get all employees")
     @Test
@@ -83,7 +178,7 @@ public class EmployeeControllerTests {
                 Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build()
         );
 
-        given(employeeService.getAllEmployees()).willReturn(listOfEmployee);
+        given(employeeService.getEmployeesPage(0L, 50)).willReturn(new EmployeePage(listOfEmployee, null));
 
 
         //when - action or the behaviour that we are going test
@@ -94,7 +189,81 @@ public class EmployeeControllerTests {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.size()", is(listOfEmployee.size())))
                 .andExpect(jsonPath("$[0].firstName", is("Ramesh")))
-                .andExpect(jsonPath("$[1].firstName", is("Tony")));
+                .andExpect(jsonPath("$[1].firstName", is("Tony")))
+                .andExpect(header().doesNotExist("Link"));
+
+    }
+
+
+    //JUnit test for get all employees with a next page
+    @DisplayName("JUnit test for get all employees with a next page")
+    @Test
+    public void givenMoreEmployeesThanPageSize_whenGetAllEmployees_thenReturnNextLink() throws Exception {
+
+        //given - precondition or setup
+        List<Employee> listOfEmployee = List.of(
+                Employee.builder().id(11L).firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build(),
+                Employee.builder().id(12L).firstName("Tony").lastName("Stark").email("tony@gmail.com").build()
+        );
+
+        given(employeeService.getEmployeesPage(10L, 2)).willReturn(new EmployeePage(listOfEmployee, 12L));
+
+        //when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("after", "10")
+                .param("size", "2"));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(header().string("Link", "<http://localhost/api/employees?after=12&size=2>; rel=\"next\""));
+
+    }
+
+
+    //JUnit test for get all employees with a page size above the maximum
+    @DisplayName("JUnit test for get all employees with a page size above the maximum")
+    @Test
+    public void givenPageSizeAboveMaximum_whenGetAllEmployees_thenPageSizeIsCapped() throws Exception {
+
+        //given - precondition or setup
+        given(employeeService.getEmployeesPage(0L, 500)).willReturn(new EmployeePage(List.of(), null));
+
+        //when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees").param("size", "100000"));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(0)));
+
+    }
+
+
+    //JUnit test for search employees by name
+    @DisplayName("JUnit test for search employees by name")
+    @Test
+    public void givenFirstNameAndLastName_whenSearchEmployees_thenReturnEmployeesList() throws Exception {
+
+        //given - precondition or setup
+        List<Employee> listOfEmployee = List.of(
+                Employee.builder().id(1L).firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build(),
+                Employee.builder().id(2L).firstName("Ramesh").lastName("Fadatare").email("ramesh_2@gmail.com").build()
+        );
+
+        given(employeeService.searchEmployees("Ramesh", "Fadatare")).willReturn(listOfEmployee);
+
+        //when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/search")
+                .param("firstName", "Ramesh")
+                .param("lastName", "Fadatare"));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[1].email", is("ramesh_2@gmail.com")));
 
     }
 
@@ -127,6 +296,29 @@ public class EmployeeControllerTests {
     }
 
 
+    //JUnit test for get employee by Id with a current ETag
+    @DisplayName("JUnit test for get employee by Id - If-None-Match with the current version")
+    @Test
+    public void givenCurrentETag_whenGetEmployeeById_thenReturnNotModifiedWithoutLoadingEmployee() throws Exception {
+
+        //given - precondition or setup
+        long employeeId = 1L;
+
+        given(employeeService.getEmployeeVersion(employeeId)).willReturn(Optional.of(3L));
+
+        //when - action or behavior we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .header("If-None-Match", "\"3\""));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+        then(employeeService).should(never()).getEployeeById(anyLong());
+    }
+
+
     //JUnit test for get employee by Id (negative scenario - invalid employee Id)
     @DisplayName("JUnit test for get employee by Id - negative scenario")
     @Test
@@ -166,9 +358,8 @@ public class EmployeeControllerTests {
                 .email("ram@gmail.com")
                 .build();
 
-        given(employeeService.getEployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
-        given(employeeService.updateEmployee(any(Employee.class)))
-                .willAnswer((invocation) -> invocation.getArgument(0));
+        given(employeeService.updateEmployee(eq(employeeId), any(Employee.class), isNull()))
+                .willAnswer((invocation) -> Optional.of(invocation.getArgument(1)));
 
         //when - action or behavior we are going to test
         ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId, updatedEmployee)
@@ -204,9 +395,8 @@ public class EmployeeControllerTests {
                 .email("ram@gmail.com")
                 .build();
 
-        given(employeeService.getEployeeById(employeeId)).willReturn(Optional.empty());
-        given(employeeService.updateEmployee(any(Employee.class)))
-                .willAnswer((invocation) -> invocation.getArgument(0));
+        given(employeeService.updateEmployee(eq(employeeId), any(Employee.class), isNull()))
+                .willReturn(Optional.empty());
 
         //when - action or behavior we are going to test
         ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId, updatedEmployee)
@@ -219,15 +409,366 @@ public class EmployeeControllerTests {
     }
 
 
+    //JUnit test for update employee with a stale If-Match
+    @DisplayName("JUnit test for update employee REST API - stale If-Match")
+    @Test
+    public void givenStaleIfMatch_whenUpdateEmployee_thenReturnPreconditionFailed() throws Exception {
+
+        //given - precondition or setup
+        long employeeId = 1L;
+        Employee savedEmployee = Employee.builder()
+                .id(employeeId)
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("ramesh@gmail.com")
+                .version(2L)
+                .build();
+
+        given(employeeService.updateEmployee(eq(employeeId), any(Employee.class), eq(List.of(1L))))
+                .willThrow(new PreconditionFailedException("Employee 1 is at version 2"));
+
+        //when - action or behavior we are going to test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .header("If-Match", "\"1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(savedEmployee)));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isPreconditionFailed());
+        then(employeeService).should(never()).getEployeeById(anyLong());
+    }
+
+
+    //JUnit test for delete employee with the current If-Match
+    @DisplayName("JUnit test for delete employee - If-Match with the current version")
+    @Test
+    public void givenCurrentIfMatch_whenDeleteEmployee_thenDeleteAtThatVersion() throws Exception {
+
+        //given - precondition or setup
+        long employeeId = 1L;
+
+        given(employeeService.deleteEmployee(employeeId, 3L))
+                .willThrow(new PreconditionFailedException("Employee 1 is at version 4, not 3"));
+        given(employeeService.deleteEmployee(employeeId, 4L)).willReturn(true);
+
+        //when - action or behavior we are going to test
+        ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employeeId)
+                .header("If-Match", "\"3\", \"4\""));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isNoContent());
+        then(employeeService).should(never()).deleteEmployee(employeeId);
+        then(employeeService).should(never()).getEmployeeVersion(anyLong());
+    }
+
+
+    //JUnit test for delete employee with a stale If-Match
+    @DisplayName("JUnit test for delete employee - If-Match with another version")
+    @Test
+    public void givenStaleIfMatch_whenDeleteEmployee_thenReturnPreconditionFailed() throws Exception {
+
+        //given - precondition or setup
+        long employeeId = 1L;
+
+        given(employeeService.deleteEmployee(employeeId, 3L))
+                .willThrow(new PreconditionFailedException("Employee 1 is at version 4, not 3"));
+        given(employeeService.deleteEmployee(employeeId, 5L)).willReturn(false);
+
+        //when - action or behavior we are going to test
+        ResultActions stale = mockMvc.perform(delete("/api/employees/{id}", employeeId)
+                .header("If-Match", "\"3\""));
+        ResultActions weak = mockMvc.perform(delete("/api/employees/{id}", employeeId)
+                .header("If-Match", "W/\"4\""));
+        ResultActions missing = mockMvc.perform(delete("/api/employees/{id}", employeeId)
+                .header("If-Match", "\"5\""));
+
+        //then - verify the output
+        stale.andDo(print())
+                .andExpect(status().isPreconditionFailed());
+        weak.andExpect(status().isPreconditionFailed());
+        missing.andExpect(status().isNotFound());
+    }
+
+
+    //JUnit test for patch employee REST API (positive scenario - valid employee id)
+    @DisplayName("JUnit test for patch employee REST API - positive scenario")
+    @Test
+    public void givenChangedFields_whenPatchEmployee_thenReturnPatchedEmployeeObject() throws Exception {
+
+        //given - precondition or setup
+        long employeeId = 1L;
+
+        Employee patchedEmployee = Employee.builder()
+                .id(employeeId)
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("ram@gmail.com")
+                .version(2L)
+                .build();
+
+        given(employeeService.patchEmployee(eq(employeeId), any(Employee.class))).willReturn(Optional.of(patchedEmployee));
+
+        //when - action or behavior we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"ram@gmail.com\"}"));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is("Ramesh")))
+                .andExpect(jsonPath("$.email", is("ram@gmail.com")))
+                .andExpect(jsonPath("$.version", is(2)));
+    }
+
+
+    //JUnit test for patch employee REST API (negative scenario - invalid employee id)
+    @DisplayName("JUnit test for patch employee REST API - negative scenario")
+    @Test
+    public void givenInvalidEmployeeId_whenPatchEmployee_thenReturnNotFound() throws Exception {
+
+        //given - precondition or setup
+        long employeeId = 5L;
+
+        given(employeeService.patchEmployee(eq(employeeId), any(Employee.class))).willReturn(Optional.empty());
+
+        //when - action or behavior we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"ram@gmail.com\"}"));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
+
+    //JUnit test for patch employee REST API (negative scenario - stale version)
+    @DisplayName("JUnit test for patch employee REST API - stale version")
+    @Test
+    public void givenStaleVersion_whenPatchEmployee_thenReturnConflict() throws Exception {
+
+        //given - precondition or setup
+        long employeeId = 1L;
+
+        given(employeeService.patchEmployee(eq(employeeId), any(Employee.class)))
+                .willThrow(new VersionConflictException("Employee 1 is at version 3, not 2"));
+
+        //when - action or behavior we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"ram@gmail.com\",\"version\":2}"));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isConflict());
+    }
+
+
+    //JUnit test for get employees with a sparse fieldset
+    @DisplayName("JUnit test for get employees REST API - sparse fieldset")
+    @Test
+    public void givenFields_whenGetAllEmployees_thenReturnOnlyThoseFields() throws Exception {
+
+        //given - precondition or setup
+        given(employeeService.getEmployeesPage(0L, 1, List.of("id", "email")))
+                .willReturn(new EmployeeFieldsPage(List.of(Map.of("id", 1L, "email", "ramesh@gmail.com")), 1L));
+
+        //when - action or behavior we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees?fields=id,email&size=1"));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].email", is("ramesh@gmail.com")))
+                .andExpect(jsonPath("$[0].firstName").doesNotExist())
+                .andExpect(header().string("Link", containsString("fields=id,email")))
+                .andExpect(header().string("Link", containsString("after=1")));
+    }
+
+
+    //JUnit test for get employee by id with an unknown field
+    @DisplayName("JUnit test for get employee by id REST API - unknown field")
+    @Test
+    public void givenUnknownField_whenGetEmployeeById_thenReturnBadRequest() throws Exception {
+
+        //given - precondition or setup
+        given(employeeService.getEmployeeFieldsById(eq(1L), anyList()))
+                .willThrow(new UnknownFieldException("Unknown employee field: salary"));
+
+        //when - action or behavior we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", 1L)
+                .param("fields", "email,salary"));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+
+    //JUnit test for import employees from CSV
+    @DisplayName("JUnit test for import employees REST API")
+    @Test
+    public void givenCsv_whenImportEmployees_thenReturnImportSummary() throws Exception {
+
+        //given - precondition or setup
+        String csv = "firstName,lastName,email\nRamesh,Fadatare,ramesh@gmail.com\nTony,Stark,\n";
+
+        given(employeeImportService.importEmployees(any())).willReturn(new EmployeeImportSummary(2, 1, 1,
+                List.of(new EmployeeImportSummary.RejectedRow(2, null, "email is required")), 5, 400.0));
+
+        //when - action or behavior we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/import")
+                .contentType("text/csv")
+                .content(csv));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead", is(2)))
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.rejectedRows[0].row", is(2)))
+                .andExpect(jsonPath("$.rejectedRows[0].reason", is("email is required")))
+                .andExpect(jsonPath("$.rowsPerSecond", is(400.0)));
+    }
+
+
+    //JUnit test for get employees by ids
+    @DisplayName("JUnit test for get employees by ids REST API")
+    @Test
+    public void givenEmployeeIds_whenGetEmployeesByIds_thenReturnEmployeesAndMissingIds() throws Exception {
+
+        //given - precondition or setup
+        Employee employee = Employee.builder().id(3L).firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build();
+        given(employeeService.getEmployeesByIds(List.of(3L, 9L))).willReturn(new EmployeeBatch(List.of(employee), List.of(9L)));
+
+        //when - action or behavior we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees").param("ids", "3,9"));
+        ResultActions tooMany = mockMvc.perform(get("/api/employees")
+                .param("ids", LongStream.rangeClosed(1, 501)
+                        .mapToObj(Long::toString)
+                        .collect(Collectors.joining(","))));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employees.size()", is(1)))
+                .andExpect(jsonPath("$.employees[0].email", is("ramesh@gmail.com")))
+                .andExpect(jsonPath("$.missingIds[0]", is(9)));
+        tooMany.andExpect(status().isBadRequest());
+    }
+
+
+    //JUnit test for look up employees by ids
+    @DisplayName("JUnit test for look up employees by ids REST API")
+    @Test
+    public void givenEmployeeIds_whenLookupEmployeesByIds_thenReturnEmployeesAndMissingIds() throws Exception {
+
+        //given - precondition or setup
+        Employee employee = Employee.builder().id(3L).firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build();
+        given(employeeService.getEmployeesByIds(List.of(3L, 9L))).willReturn(new EmployeeBatch(List.of(employee), List.of(9L)));
+
+        //when - action or behavior we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[3, 9]"));
+        ResultActions tooMany = mockMvc.perform(post("/api/employees/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(LongStream.rangeClosed(1, 1001).boxed().collect(Collectors.toList()))));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employees[0].email", is("ramesh@gmail.com")))
+                .andExpect(jsonPath("$.missingIds[0]", is(9)));
+        tooMany.andExpect(status().isBadRequest());
+    }
+
+
+    //JUnit test for suggest employees
+    @DisplayName("JUnit test for suggest employees REST API")
+    @Test
+    public void givenQuery_whenSuggestEmployees_thenReturnSuggestionsWithCappedLimit() throws Exception {
+
+        //given - precondition or setup
+        given(employeeSuggestIndex.suggest("ramsh", 50)).willReturn(List.of(
+                new EmployeeSuggestion(1L, "Ramesh", "Fadatare", "ramesh@gmail.com", 1)));
+
+        //when - action or behavior we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/suggest")
+                .param("q", "ramsh")
+                .param("limit", "1000"));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].firstName", is("Ramesh")))
+                .andExpect(jsonPath("$[0].distance", is(1)));
+    }
+
+
+    //JUnit test for export employees as a JSON array
+    @DisplayName("JUnit test for export employees REST API - JSON array")
+    @Test
+    public void givenEmployees_whenExportEmployees_thenReturnJsonArray() throws Exception {
+
+        //given - precondition or setup
+        givenExportedEmployees();
+
+        //when - action or behavior we are going to test
+        ResultActions started = mockMvc.perform(get("/api/employees/export"))
+                .andExpect(request().asyncStarted());
+        ResultActions response = mockMvc.perform(asyncDispatch(started.andReturn()));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[1].email", is("tony@gmail.com")));
+    }
+
+
+    //JUnit test for export employees as newline delimited JSON
+    @DisplayName("JUnit test for export employees REST API - NDJSON")
+    @Test
+    public void givenEmployees_whenExportEmployeesAsNdjson_thenReturnOneEmployeePerLine() throws Exception {
+
+        //given - precondition or setup
+        givenExportedEmployees();
+
+        //when - action or behavior we are going to test
+        ResultActions started = mockMvc.perform(get("/api/employees/export")
+                .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted());
+        ResultActions response = mockMvc.perform(asyncDispatch(started.andReturn()));
+
+        //then - verify the output
+        String body = response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"email\":\"ramesh@gmail.com\"")))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        org.assertj.core.api.Assertions.assertThat(lines).hasSize(2);
+        org.assertj.core.api.Assertions.assertThat(objectMapper.readValue(lines[1], Employee.class).getEmail())
+                .isEqualTo("tony@gmail.com");
+    }
+
+
     //JUnit test for delete employee
     @DisplayName("JUnit test for delete employee")
     @Test
-    public void givenEmployeeId_whenDeleteEmployee_thenResponseStatusOK() throws Exception {
+    public void givenEmployeeId_whenDeleteEmployee_thenResponseStatusNoContent() throws Exception {
 
         //given - precondition or setup
         long employeeId = 1L;
 
-        willDoNothing().given(employeeService).deleteEmployee(employeeId);
+        given(employeeService.deleteEmployee(employeeId)).willReturn(true);
 
 
         //when - action or behavior we are going to test
@@ -236,7 +777,43 @@ public class EmployeeControllerTests {
 
         //then - verify the output
         response.andDo(print())
-                .andExpect(status().isOk())
-                .andExpect(content().contentType("text/plain;charset=UTF-8"));
+                .andExpect(status().isNoContent());
     }
+
+
+    //JUnit test for delete employee (negative scenario - invalid employee id)
+    @DisplayName("JUnit test for delete employee - negative scenario")
+    @Test
+    public void givenInvalidEmployeeId_whenDeleteEmployee_thenResponseStatusNotFound() throws Exception {
+
+        //given - precondition or setup
+        long employeeId = 5L;
+
+        given(employeeService.deleteEmployee(employeeId)).willReturn(false);
+
+
+        //when - action or behavior we are going to test
+        ResultActions response = mockMvc.perform(delete("/api/employees/{1}", employeeId));
+
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private void givenExportedEmployees(){
+
+        List<Employee> employees = List.of(
+                Employee.builder().id(1L).firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").version(0L).build(),
+                Employee.builder().id(2L).firstName("Tony").lastName("Stark").email("tony@gmail.com").version(0L).build());
+
+        given(employeeService.exportEmployees(any())).willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            employees.forEach(consumer);
+            return (long) employees.size();
+        });
+    }
+
 }
@@ -0,0 +1,101 @@
+package net.javaguides.springboot.datasource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class ReplicaLagMonitorTests {
+
+    //JUnit test for starting without touching the replica
+    @DisplayName("JUnit test for creating the monitor without connecting to the replica")
+    @Test
+    public void givenUnreachableReplica_whenCreateMonitor_thenReplicaIsUnavailableWithoutAConnectionAttempt() throws SQLException {
+
+        //given - precondition or setup
+        DataSource replica = Mockito.mock(DataSource.class);
+        given(replica.getConnection()).willThrow(new SQLTransientConnectionException("Connection is not available"));
+
+        //when - action or the behaviour that we are going test
+        ReplicaLagMonitor replicaLagMonitor = new ReplicaLagMonitor(replica, "select 0", 5);
+
+        //then - verify the output
+        assertThat(replicaLagMonitor.isReplicaAvailable()).isFalse();
+        verifyNoInteractions(replica);
+
+        replicaLagMonitor.check();
+        assertThat(replicaLagMonitor.isReplicaAvailable()).isFalse();
+    }
+
+    //JUnit test for the first scheduled check
+    @DisplayName("JUnit test for routing to the replica once a check found it in sync")
+    @Test
+    public void givenReplicaInSync_whenCheck_thenReplicaBecomesAvailable() throws SQLException {
+
+        //given - precondition or setup
+        DataSource replica = Mockito.mock(DataSource.class);
+        Connection connection = Mockito.mock(Connection.class);
+        Statement statement = Mockito.mock(Statement.class);
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        given(replica.getConnection()).willReturn(connection);
+        given(connection.createStatement()).willReturn(statement);
+        given(statement.executeQuery(anyString())).willReturn(resultSet);
+        given(resultSet.next()).willReturn(true);
+        given(resultSet.getMetaData()).willReturn(metaData);
+        given(metaData.getColumnCount()).willReturn(1);
+        given(resultSet.getLong(anyInt())).willReturn(0L);
+
+        ReplicaLagMonitor replicaLagMonitor = new ReplicaLagMonitor(replica, "select 0", 5);
+
+        //when - action or the behaviour that we are going test
+        replicaLagMonitor.check();
+
+        //then - verify the output
+        assertThat(replicaLagMonitor.isReplicaAvailable()).isTrue();
+    }
+
+    //JUnit test for reading the lag from SHOW REPLICA STATUS
+    @DisplayName("JUnit test for falling back to the primary when SHOW REPLICA STATUS reports a lag")
+    @Test
+    public void givenLaggingReplica_whenCheckWithShowReplicaStatus_thenReplicaIsUnavailable() throws SQLException {
+
+        //given - precondition or setup
+        DataSource replica = Mockito.mock(DataSource.class);
+        Connection connection = Mockito.mock(Connection.class);
+        Statement statement = Mockito.mock(Statement.class);
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        given(replica.getConnection()).willReturn(connection);
+        given(connection.createStatement()).willReturn(statement);
+        given(statement.executeQuery("SHOW REPLICA STATUS")).willReturn(resultSet);
+        given(resultSet.next()).willReturn(true);
+        given(resultSet.getMetaData()).willReturn(metaData);
+        given(metaData.getColumnCount()).willReturn(33);
+        given(metaData.getColumnLabel(anyInt())).willReturn("Replica_IO_State");
+        given(metaData.getColumnLabel(33)).willReturn("Seconds_Behind_Source");
+        given(resultSet.getLong(1)).willReturn(0L);
+        given(resultSet.getLong(33)).willReturn(60L);
+
+        ReplicaLagMonitor replicaLagMonitor = new ReplicaLagMonitor(replica, "SHOW REPLICA STATUS", 5);
+
+        //when - action or the behaviour that we are going test
+        replicaLagMonitor.check();
+
+        //then - verify the output
+        assertThat(replicaLagMonitor.isReplicaAvailable()).isFalse();
+    }
+}
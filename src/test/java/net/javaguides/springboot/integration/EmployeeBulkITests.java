@@ -0,0 +1,163 @@
+package net.javaguides.springboot.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.dto.EmployeeBulkUpdate;
+import net.javaguides.springboot.dto.EmployeeSuggestion;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.search.EmployeeSuggestIndex;
+import net.javaguides.springboot.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Small chunks, so every bulk call below spans several transactions.
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "app.employees.bulk.chunk-size=2")
+public class EmployeeBulkITests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeSuggestIndex employeeSuggestIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<Employee> employees;
+
+    @BeforeEach
+    private void setup(){
+        employeeRepository.deleteAll();
+        employeeSuggestIndex.rebuild();
+
+        employees = new ArrayList<>();
+        for (int i = 0; i < 5; i++){
+            employees.add(employeeService.saveEmployee(Employee.builder()
+                    .firstName("Tony" + i)
+                    .lastName("Stark")
+                    .email("tony" + i + "@stark.com")
+                    .build()));
+        }
+        employees.add(employeeService.saveEmployee(Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("ramesh@gmail.com")
+                .build()));
+    }
+
+    @Test
+    public void givenEmailDomain_whenBulkUpdate_thenChangeEveryMatchingEmployeeAndInvalidateCaches() throws Exception {
+
+        //given - precondition or setup
+        Employee cached = employeeService.getEployeeById(employees.get(0).getId()).orElseThrow();
+        EmployeeBulkUpdate update = EmployeeBulkUpdate.builder()
+                .emailDomain("stark.com")
+                .newEmailDomain("avengers.com")
+                .build();
+
+        //when - action or behaviour that we are going to test
+        //then - verify the result or output using assert statements
+        mockMvc.perform(post("/api/employees/bulk-update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(5)))
+                .andExpect(jsonPath("$.transactions", is(3)));
+
+        mockMvc.perform(get("/api/employees/{id}", cached.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email", is("tony0@avengers.com")))
+                .andExpect(jsonPath("$.version", is((int) (cached.getVersion() + 1))));
+
+        assertThat(employeeRepository.findByEmail("ramesh@gmail.com")).isPresent();
+        assertThat(employeeRepository.findByEmail("tony4@avengers.com")).isPresent();
+        assertThat(employeeSuggestIndex.suggest("tony3@", 10)).extracting(EmployeeSuggestion::getEmail)
+                .contains("tony3@avengers.com")
+                .noneMatch(email -> email.endsWith("@stark.com"));
+    }
+
+    @Test
+    public void givenIds_whenBulkUpdateAndBulkDelete_thenReturnAffectedRowCounts() throws Exception {
+
+        //given - precondition or setup
+        List<Long> ids = List.of(employees.get(0).getId(), employees.get(1).getId(), employees.get(5).getId(), -1L);
+        EmployeeBulkUpdate update = EmployeeBulkUpdate.builder().ids(ids).lastName("Banner").build();
+
+        //when - action or behaviour that we are going to test
+        //then - verify the result or output using assert statements
+        mockMvc.perform(post("/api/employees/bulk-update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(3)))
+                .andExpect(jsonPath("$.transactions", is(2)));
+
+        assertThat(employeeRepository.findByLastNameAndFirstName("Banner", "Ramesh")).hasSize(1);
+
+        mockMvc.perform(post("/api/employees/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(3)));
+
+        mockMvc.perform(get("/api/employees/{id}", employees.get(0).getId()))
+                .andExpect(status().isNotFound());
+
+        assertThat(employeeRepository.count()).isEqualTo(3);
+        assertThat(employeeSuggestIndex.suggest("banner", 10)).isEmpty();
+    }
+
+    @Test
+    public void givenCollidingDomainOrNothingToChange_whenBulkUpdate_thenReturnConflictOrBadRequest() throws Exception {
+
+        //given - precondition or setup
+        employeeService.saveEmployee(Employee.builder().firstName("Tony").lastName("Stark").email("tony0@gmail.com").build());
+        EmployeeBulkUpdate colliding = EmployeeBulkUpdate.builder().emailDomain("stark.com").newEmailDomain("gmail.com").build();
+        EmployeeBulkUpdate nothing = EmployeeBulkUpdate.builder().emailDomain("stark.com").build();
+
+        //when - action or behaviour that we are going to test
+        //then - verify the result or output using assert statements
+        mockMvc.perform(post("/api/employees/bulk-update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(colliding)))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(post("/api/employees/bulk-update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(nothing)))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/employees/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(employeeRepository.findByEmail("tony1@stark.com")).isPresent();
+    }
+}
@@ -0,0 +1,164 @@
+package net.javaguides.springboot.integration;
+
+import net.javaguides.springboot.config.CacheConfig;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// ETag, Last-Modified, If-None-Match and If-Match against the real database.
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EmployeeConditionalRequestITests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Employee employee;
+
+    @BeforeEach
+    private void setup(){
+        employeeRepository.deleteAll();
+        employee = employeeRepository.save(Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("ramesh@gmail.com")
+                .build());
+    }
+
+    @Test
+    public void givenETag_whenGetEmployeeById_thenReturnNotModifiedUntilTheEmployeeChanges() throws Exception {
+
+        //given - precondition or setup
+        MvcResult first = mockMvc.perform(get("/api/employees/{id}", employee.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn();
+        String eTag = first.getResponse().getHeader("ETag");
+
+        //when - action or behaviour that we are going to test
+        MvcResult unchanged = mockMvc.perform(get("/api/employees/{id}", employee.getId())
+                        .header("If-None-Match", eTag))
+                .andDo(print())
+                .andReturn();
+
+        mockMvc.perform(patch("/api/employees/{id}", employee.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Ram\"}"))
+                .andExpect(status().isOk());
+
+        MvcResult changed = mockMvc.perform(get("/api/employees/{id}", employee.getId())
+                        .header("If-None-Match", eTag))
+                .andDo(print())
+                .andReturn();
+
+        //then - verify the result or output using assert statements
+        assertThat(eTag).isEqualTo("\"0\"");
+        assertThat(unchanged.getResponse().getStatus()).isEqualTo(304);
+        assertThat(unchanged.getResponse().getContentAsString()).isEmpty();
+        assertThat(changed.getResponse().getStatus()).isEqualTo(200);
+        assertThat(changed.getResponse().getHeaders("ETag")).containsExactly("\"1\"");
+        assertThat(changed.getResponse().getContentAsString()).contains("\"firstName\":\"Ram\"");
+    }
+
+    @Test
+    public void givenPageETag_whenGetEmployees_thenReturnNotModified() throws Exception {
+
+        //given - precondition or setup
+        String eTag = mockMvc.perform(get("/api/employees"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        //when - action or behaviour that we are going to test
+        MvcResult unchanged = mockMvc.perform(get("/api/employees").header("If-None-Match", eTag))
+                .andDo(print())
+                .andReturn();
+
+        //then - verify the result or output using assert statements
+        assertThat(eTag).isNotNull();
+        assertThat(unchanged.getResponse().getStatus()).isEqualTo(304);
+        assertThat(unchanged.getResponse().getContentAsString()).isEmpty();
+    }
+
+    @Test
+    public void givenIfMatch_whenUpdateAndDeleteEmployee_thenOnlyTheCurrentVersionSucceeds() throws Exception {
+
+        //given - precondition or setup
+        String body = "{\"firstName\":\"Ram\",\"lastName\":\"Fadatare\",\"email\":\"ramesh@gmail.com\"}";
+
+        //when - action or behaviour that we are going to test
+        mockMvc.perform(put("/api/employees/{id}", employee.getId())
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+
+        //then - verify the result or output using assert statements
+        mockMvc.perform(put("/api/employees/{id}", employee.getId())
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/employees/{id}", employee.getId())
+                        .header("If-Match", "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/employees/{id}", employee.getId())
+                        .header("If-Match", "\"1\""))
+                .andExpect(status().isNoContent());
+
+        assertThat(employeeRepository.findById(employee.getId())).isEmpty();
+    }
+
+    @Test
+    public void givenStaleCachedEmployee_whenUpdateEmployee_thenCheckedAgainstTheStoredVersion() throws Exception {
+
+        //given - precondition or setup
+        mockMvc.perform(patch("/api/employees/{id}", employee.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Ram\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+        // e.g. put by another instance before the patch, the cache still has version 0
+        cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE).put(employee.getId(), employee);
+        String body = "{\"firstName\":\"Ramesh\",\"lastName\":\"Fadatare\",\"email\":\"ramesh@gmail.com\"}";
+
+        //when - action or behaviour that we are going to test
+        MvcResult withIfMatch = mockMvc.perform(put("/api/employees/{id}", employee.getId())
+                        .header("If-Match", "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andDo(print())
+                .andReturn();
+        MvcResult withoutIfMatch = mockMvc.perform(put("/api/employees/{id}", employee.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andDo(print())
+                .andReturn();
+
+        //then - verify the result or output using assert statements
+        assertThat(withIfMatch.getResponse().getStatus()).isEqualTo(200);
+        assertThat(withIfMatch.getResponse().getHeader("ETag")).isEqualTo("\"2\"");
+        assertThat(withoutIfMatch.getResponse().getStatus()).isEqualTo(200);
+        assertThat(employeeRepository.findById(employee.getId()).get().getVersion()).isEqualTo(2L);
+    }
+}
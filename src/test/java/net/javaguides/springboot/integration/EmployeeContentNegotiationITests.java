@@ -0,0 +1,187 @@
+package net.javaguides.springboot.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.NativeProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// CBOR, Smile and protobuf request and response bodies, decoded here with plain Jackson mappers.
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EmployeeContentNegotiationITests {
+
+    private static final MediaType CBOR = MediaType.valueOf("application/cbor");
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+    private static final MediaType PROTOBUF = MediaType.valueOf("application/x-protobuf");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private Employee employee;
+
+    @BeforeEach
+    private void setup(){
+        employeeRepository.deleteAll();
+        employee = employeeRepository.save(Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("ramesh@gmail.com")
+                .build());
+    }
+
+    @Test
+    public void givenCborAccept_whenGetEmployees_thenReturnCborList() throws Exception {
+
+        //given - precondition or setup
+        ObjectMapper cbor = binaryMapper(new CBORMapper());
+        CollectionType employeeList = cbor.getTypeFactory().constructCollectionType(List.class, Employee.class);
+
+        //when - action or behaviour that we are going to test
+        byte[] body = mockMvc.perform(get("/api/employees").accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        //then - verify the result or output using assert statements
+        List<Employee> employees = cbor.readValue(body, employeeList);
+        assertThat(employees).extracting(Employee::getEmail).containsExactly("ramesh@gmail.com");
+    }
+
+    @Test
+    public void givenSmileBody_whenCreateEmployee_thenReturnSmileEmployee() throws Exception {
+
+        //given - precondition or setup
+        ObjectMapper smile = binaryMapper(new SmileMapper());
+        Employee newEmployee = Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build();
+
+        //when - action or behaviour that we are going to test
+        byte[] body = mockMvc.perform(post("/api/employees")
+                        .contentType(SMILE)
+                        .accept(SMILE)
+                        .content(smile.writeValueAsBytes(newEmployee)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        //then - verify the result or output using assert statements
+        Employee savedEmployee = smile.readValue(body, Employee.class);
+        assertThat(savedEmployee.getId()).isGreaterThan(0);
+        assertThat(savedEmployee.getEmail()).isEqualTo("tony@gmail.com");
+    }
+
+    @Test
+    public void givenProtobuf_whenCreateAndGetEmployees_thenRoundTripProtobufMessages() throws Exception {
+
+        //given - precondition or setup
+        ProtobufMapper protobuf = (ProtobufMapper) binaryMapper(new ProtobufMapper());
+        NativeProtobufSchema schema = ProtobufSchemaLoader.std.parseNative(mockMvc.perform(get("/protobuf/employee.proto"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        ProtobufSchema employeeSchema = schema.forType("Employee");
+        ProtobufSchema listSchema = schema.forType("EmployeeList");
+        Employee newEmployee = Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build();
+
+        //when - action or behaviour that we are going to test
+        byte[] created = mockMvc.perform(post("/api/employees")
+                        .contentType(PROTOBUF)
+                        .accept(PROTOBUF)
+                        .content(protobuf.writer(employeeSchema).writeValueAsBytes(newEmployee)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        byte[] list = mockMvc.perform(get("/api/employees").accept(PROTOBUF))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        //then - verify the result or output using assert statements
+        Employee savedEmployee = protobuf.readerFor(Employee.class).with(employeeSchema).readValue(created);
+        EmployeeList employees = protobuf.readerFor(EmployeeList.class).with(listSchema).readValue(list);
+
+        assertThat(savedEmployee.getEmail()).isEqualTo("tony@gmail.com");
+        assertThat(savedEmployee.getVersion()).isZero();
+        assertThat(employees.getEmployees()).extracting(Employee::getEmail)
+                .containsExactly("ramesh@gmail.com", "tony@gmail.com");
+    }
+
+    @Test
+    public void givenFixedProtobufPayload_whenCreateEmployee_thenDecodedWithThePinnedFieldNumbers() throws Exception {
+
+        //given - precondition or setup
+        // firstName = 2, lastName = 3, email = 4 of employee.proto, as a client built from it encodes them
+        byte[] payload = HexFormat.of().parseHex("1204546f6e79"
+                + "1a05537461726b"
+                + "220e746f6e7940676d61696c2e636f6d");
+
+        //when - action or behaviour that we are going to test
+        mockMvc.perform(post("/api/employees")
+                        .contentType(PROTOBUF)
+                        .content(payload))
+                .andExpect(status().isCreated());
+
+        //then - verify the result or output using assert statements
+        assertThat(employeeRepository.findAll())
+                .filteredOn(savedEmployee -> "tony@gmail.com".equals(savedEmployee.getEmail()))
+                .singleElement()
+                .satisfies(savedEmployee -> {
+                    assertThat(savedEmployee.getFirstName()).isEqualTo("Tony");
+                    assertThat(savedEmployee.getLastName()).isEqualTo("Stark");
+                });
+    }
+
+    @Test
+    public void givenProtobufAccept_whenGetEmployeeFields_thenReturnNotAcceptable() throws Exception {
+
+        //when - action or behaviour that we are going to test
+        //then - verify the result or output using assert statements
+        mockMvc.perform(get("/api/employees/{id}", employee.getId())
+                        .param("fields", "email")
+                        .accept(PROTOBUF))
+                .andExpect(status().isNotAcceptable());
+    }
+
+
+    private static ObjectMapper binaryMapper(ObjectMapper mapper){
+        return mapper.registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    // same shape as the message the server wraps lists of employees in
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    static class EmployeeList {
+
+        private List<Employee> employees;
+    }
+}
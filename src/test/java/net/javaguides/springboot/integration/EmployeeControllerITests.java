@@ -1,5 +1,6 @@
 package net.javaguides.springboot.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import net.javaguides.springboot.model.Employee;
 import net.javaguides.springboot.repository.EmployeeRepository;
@@ -11,15 +12,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
 
 // Loading a WebServerApplicationContext and provides a real web environment.
@@ -44,6 +53,10 @@ public class EmployeeControllerITests {
     @Autowired
     private ObjectMapper objectMapper;
 
+    // Requests through the embedded Tomcat, for the limits MockMvc does not have.
+    @Autowired
+    private TestRestTemplate restTemplate;
+
 
     @BeforeEach
     private void setup(){
@@ -73,4 +86,241 @@ public class EmployeeControllerITests {
                 .andExpect(jsonPath("$.email", is(employee.getEmail())));
 
     }
+
+
+    @Test
+    public void givenExistingEmail_whenCreateEmployee_thenReturnConflict() throws Exception {
+
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("ramesh@gmail.com")
+                .build();
+
+        employeeRepository.save(employee);
+
+        Employee duplicate = Employee.builder()
+                .firstName("Ram")
+                .lastName("Fada")
+                .email("ramesh@gmail.com")
+                .build();
+
+        //when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(duplicate)));
+
+        //then - verify the result or output using assert statements
+        response.andDo(print())
+                .andExpect(status().isConflict());
+
+    }
+
+
+    @Test
+    public void givenChangedEmail_whenPatchEmployee_thenReturnPatchedEmployee() throws Exception {
+
+        //given - precondition or setup
+        Employee employee = employeeRepository.save(Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("ramesh@gmail.com")
+                .build());
+
+        //when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"ram@gmail.com\",\"version\":" + employee.getVersion() + "}"));
+
+        //then - verify the result or output using assert statements
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is("Ramesh")))
+                .andExpect(jsonPath("$.email", is("ram@gmail.com")))
+                .andExpect(jsonPath("$.version", is((int) (employee.getVersion() + 1))));
+
+    }
+
+
+    @Test
+    public void givenStaleVersion_whenPatchEmployee_thenReturnConflict() throws Exception {
+
+        //given - precondition or setup
+        Employee employee = employeeRepository.save(Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("ramesh@gmail.com")
+                .build());
+
+        //when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"ram@gmail.com\",\"version\":" + (employee.getVersion() + 1) + "}"));
+
+        //then - verify the result or output using assert statements
+        response.andDo(print())
+                .andExpect(status().isConflict());
+
+    }
+
+
+    @Test
+    public void givenEmployeeId_whenDeleteEmployee_thenReturnNoContentThenNotFound() throws Exception {
+
+        //given - precondition or setup
+        Employee employee = employeeRepository.save(Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("ramesh@gmail.com")
+                .build());
+
+        //when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employee.getId()));
+        ResultActions secondResponse = mockMvc.perform(delete("/api/employees/{id}", employee.getId()));
+
+        //then - verify the result or output using assert statements
+        response.andDo(print())
+                .andExpect(status().isNoContent());
+        secondResponse.andDo(print())
+                .andExpect(status().isNotFound());
+
+    }
+
+
+    @Test
+    public void givenListOfEmployees_whenCreateEmployees_thenReturnSavedEmployees() throws Exception {
+
+        //given - precondition or setup
+        List<Employee> listOfEmployee = List.of(
+                Employee.builder().firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build(),
+                Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build()
+        );
+
+        //when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(listOfEmployee)));
+
+        //then - verify the result or output using assert statements
+        response.andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.size()", is(listOfEmployee.size())));
+
+        org.assertj.core.api.Assertions.assertThat(employeeRepository.count()).isEqualTo(2);
+
+    }
+
+
+    @Test
+    public void givenListOfEmployees_whenExportEmployeesAsNdjson_thenStreamEveryEmployee() throws Exception {
+
+        //given - precondition or setup
+        employeeRepository.saveAll(List.of(
+                Employee.builder().firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build(),
+                Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build(),
+                Employee.builder().firstName("John").lastName("Cena").email("cena@gmail.com").build()
+        ));
+
+        //when - action or behaviour that we are going to test
+        ResultActions started = mockMvc.perform(get("/api/employees/export")
+                .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted());
+        ResultActions response = mockMvc.perform(asyncDispatch(started.andReturn()));
+
+        //then - verify the result or output using assert statements
+        String body = response.andDo(print())
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        org.assertj.core.api.Assertions.assertThat(body.split("\n"))
+                .extracting(line -> objectMapper.readValue(line, Employee.class).getEmail())
+                .containsExactly("ramesh@gmail.com", "tony@gmail.com", "cena@gmail.com");
+
+    }
+
+
+    @Test
+    public void givenFields_whenGetEmployees_thenReturnOnlyThoseFields() throws Exception {
+
+        //given - precondition or setup
+        List<Employee> employees = employeeRepository.saveAll(List.of(
+                Employee.builder().firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build(),
+                Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build()
+        ));
+
+        //when - action or behaviour that we are going to test
+        ResultActions pageResponse = mockMvc.perform(get("/api/employees")
+                .param("fields", "email")
+                .param("size", "1"));
+        ResultActions employeeResponse = mockMvc.perform(get("/api/employees/{id}", employees.get(1).getId())
+                .param("fields", "id,lastName"));
+        ResultActions unknownFieldResponse = mockMvc.perform(get("/api/employees/{id}", employees.get(1).getId())
+                .param("fields", "salary"));
+
+        //then - verify the result or output using assert statements
+        pageResponse.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].email", is("ramesh@gmail.com")))
+                .andExpect(jsonPath("$[0].id").doesNotExist())
+                .andExpect(header().exists("Link"));
+        employeeResponse.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":" + employees.get(1).getId() + ",\"lastName\":\"Stark\"}", true));
+        unknownFieldResponse.andDo(print())
+                .andExpect(status().isBadRequest());
+
+    }
+
+
+    @Test
+    public void givenEmployeeIds_whenGetEmployeesByIds_thenReturnThemInRequestOrder() throws Exception {
+
+        //given - precondition or setup
+        List<Employee> employees = employeeRepository.saveAll(List.of(
+                Employee.builder().firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build(),
+                Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build()
+        ));
+        long missingId = employees.get(1).getId() + 1000;
+
+        //when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("ids", employees.get(1).getId() + "," + missingId + "," + employees.get(0).getId()));
+
+        //then - verify the result or output using assert statements
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employees.size()", is(2)))
+                .andExpect(jsonPath("$.employees[0].email", is("tony@gmail.com")))
+                .andExpect(jsonPath("$.employees[1].email", is("ramesh@gmail.com")))
+                .andExpect(jsonPath("$.missingIds[0]", is((int) missingId)));
+
+    }
+
+
+    @Test
+    public void givenMaximumNumberOfIds_whenGetAndLookupEmployeesByIds_thenAcceptedByTomcat() throws Exception {
+
+        //given - precondition or setup
+        Employee employee = employeeRepository.save(
+                Employee.builder().firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build());
+        // 7 digit ids for the body, 12 digit ids for the query string
+        List<Long> lookupIds = LongStream.range(0, 1000).map(i -> 1_000_000L + i).boxed().collect(Collectors.toList());
+        lookupIds.set(0, employee.getId());
+        String queryIds = LongStream.range(0, 500)
+                .mapToObj(i -> Long.toString(100_000_000_000L + i))
+                .collect(Collectors.joining(","));
+
+        //when - action or behaviour that we are going to test
+        ResponseEntity<JsonNode> lookupResponse = restTemplate.postForEntity("/api/employees/lookup", lookupIds, JsonNode.class);
+        ResponseEntity<JsonNode> getResponse = restTemplate.getForEntity("/api/employees?ids=" + queryIds, JsonNode.class);
+
+        //then - verify the result or output using assert statements
+        assertThat(lookupResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(lookupResponse.getBody().get("employees").get(0).get("email").asText()).isEqualTo("ramesh@gmail.com");
+        assertThat(lookupResponse.getBody().get("missingIds").size()).isEqualTo(999);
+        assertThat(getResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(getResponse.getBody().get("missingIds").size()).isEqualTo(500);
+    }
 }
@@ -0,0 +1,96 @@
+package net.javaguides.springboot.integration;
+
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Small chunks, so duplicates are also found across chunks.
+@SpringBootTest(properties = "app.employees.import.chunk-size=2")
+@AutoConfigureMockMvc
+public class EmployeeImportITests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    private void setup(){
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    public void givenCsvWithInvalidRows_whenImportEmployees_thenSaveValidRowsAndReportTheOthers() throws Exception {
+
+        //given - precondition or setup
+        employeeRepository.save(Employee.builder().firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build());
+
+        String csv = "firstName,lastName,email,department\n"
+                + "Tony,Stark,tony@gmail.com,R&D\n"
+                + "Ramesh,Fadatare,ramesh@gmail.com,HR\n"       // already in the table
+                + "Bruce,Banner,,R&D\n"                         // no email
+                + "Natasha,Romanoff,natasha@gmail.com,Ops\n"
+                + "Anthony,Stark,tony@gmail.com,R&D\n"         // repeated in an earlier chunk
+                + "Steve,Rogers,steve@gmail.com,Ops\n";
+
+        //when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/import")
+                .contentType("text/csv")
+                .content(csv));
+
+        //then - verify the result or output using assert statements
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead", is(6)))
+                .andExpect(jsonPath("$.imported", is(3)))
+                .andExpect(jsonPath("$.rejected", is(3)))
+                .andExpect(jsonPath("$.rejectedRows[0].row", is(2)))
+                .andExpect(jsonPath("$.rejectedRows[0].email", is("ramesh@gmail.com")))
+                .andExpect(jsonPath("$.rejectedRows[1].row", is(3)))
+                .andExpect(jsonPath("$.rejectedRows[1].reason", is("email is required")))
+                .andExpect(jsonPath("$.rejectedRows[2].row", is(5)))
+                .andExpect(jsonPath("$.rejectedRows[2].email", is("tony@gmail.com")))
+                .andExpect(jsonPath("$.rowsPerSecond", greaterThan(0.0)));
+
+        assertThat(employeeRepository.findAll()).extracting(Employee::getEmail)
+                .containsExactlyInAnyOrder("ramesh@gmail.com", "tony@gmail.com", "natasha@gmail.com", "steve@gmail.com");
+    }
+
+    @Test
+    public void givenRowWithTooManyColumns_whenImportEmployees_thenRejectItAndContinue() throws Exception {
+
+        //given - precondition or setup
+        String csv = "firstName,lastName,email\n"
+                + "Tony,Stark,tony@gmail.com,unexpected\n"
+                + "Steve,Rogers,steve@gmail.com\n";
+
+        //when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/import")
+                .contentType("text/csv")
+                .content(csv));
+
+        //then - verify the result or output using assert statements
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead", is(2)))
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.rejectedRows[0].row", is(1)));
+
+        assertThat(employeeRepository.findByEmail("steve@gmail.com")).isPresent();
+    }
+}
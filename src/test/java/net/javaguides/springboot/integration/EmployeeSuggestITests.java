@@ -0,0 +1,91 @@
+package net.javaguides.springboot.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.search.EmployeeSuggestIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EmployeeSuggestITests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeSuggestIndex employeeSuggestIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // deleteAll bypasses EmployeeService, so the index is rebuilt from the emptied table.
+    @BeforeEach
+    private void setup(){
+        employeeRepository.deleteAll();
+        employeeSuggestIndex.rebuild();
+    }
+
+    @Test
+    public void givenExistingEmployees_whenSuggestEmployees_thenMatchesFromTheRebuiltIndex() throws Exception {
+
+        //given - precondition or setup
+        employeeRepository.save(Employee.builder().firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build());
+        employeeRepository.save(Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build());
+        employeeSuggestIndex.rebuild();
+
+        //when - action or behaviour that we are going to test
+        //then - verify the result or output using assert statements
+        mockMvc.perform(get("/api/employees/suggest").param("q", "fadatrae"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].email", is("ramesh@gmail.com")))
+                .andExpect(jsonPath("$[0].distance", is(2)));
+    }
+
+    @Test
+    public void givenCreatedAndDeletedEmployees_whenSuggestEmployees_thenIndexFollowsTheWrites() throws Exception {
+
+        //given - precondition or setup
+        Employee employee = Employee.builder().firstName("Natasha").lastName("Romanoff").email("natasha@gmail.com").build();
+
+        String created = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readValue(created, Employee.class).getId();
+
+        //when - action or behaviour that we are going to test
+        //then - verify the result or output using assert statements
+        mockMvc.perform(get("/api/employees/suggest").param("q", "nat"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].id", is((int) id)));
+
+        mockMvc.perform(delete("/api/employees/{id}", id))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/employees/suggest").param("q", "nat"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(0)));
+    }
+}
@@ -0,0 +1,100 @@
+package net.javaguides.springboot.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.employees.write-behind.enabled=true",
+        "app.employees.write-behind.flush-interval-ms=20"
+})
+@AutoConfigureMockMvc
+public class EmployeeWriteBehindITests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    private void setup(){
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    public void givenRespondAsync_whenCreateEmployee_thenAcceptedAndCreatedByTheFlush() throws Exception {
+
+        //given - precondition or setup
+        Employee employee = Employee.builder().firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build();
+
+        //when - action or behaviour that we are going to test
+        MvcResult accepted = mockMvc.perform(post("/api/employees")
+                        .header("Prefer", "respond-async, wait=5")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.state", is("PENDING")))
+                .andReturn();
+
+        String id = objectMapper.readTree(accepted.getResponse().getContentAsString()).get("id").asText();
+        String statusUrl = accepted.getResponse().getHeader("Location");
+
+        //then - verify the result or output using assert statements
+        assertThat(statusUrl).endsWith("/api/employees/pending/" + id);
+
+        JsonNode status = null;
+        for (int attempt = 0; attempt < 100; attempt++){
+            status = objectMapper.readTree(mockMvc.perform(get(statusUrl))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            if (!"PENDING".equals(status.get("state").asText())){
+                break;
+            }
+            Thread.sleep(50);
+        }
+
+        assertThat(status.get("state").asText()).isEqualTo("CREATED");
+        assertThat(employeeRepository.findById(status.get("employeeId").asLong())).isPresent();
+
+        // without the preference the create stays synchronous
+        mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.email", is("tony@gmail.com")));
+
+        // other preferences are not an opt-in either
+        mockMvc.perform(post("/api/employees")
+                        .header("Prefer", "return=minimal")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                Employee.builder().firstName("Natasha").lastName("Romanoff").email("natasha@gmail.com").build())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.email", is("natasha@gmail.com")));
+    }
+}
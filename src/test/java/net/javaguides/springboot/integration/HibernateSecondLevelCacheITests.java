@@ -0,0 +1,127 @@
+package net.javaguides.springboot.integration;
+
+import net.javaguides.springboot.config.HibernateCacheConfig;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Goes through the repository, below the service level cache, so every hit is a Hibernate one.
+// Each repository call runs in its own transaction and persistence context.
+@SpringBootTest
+public class HibernateSecondLevelCacheITests {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Employee employee;
+
+    @BeforeEach
+    private void setup(){
+        employeeRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        employee = employeeService.saveEmployee(Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("ramesh@gmail.com")
+                .build());
+        statistics.clear();
+    }
+
+    @Test
+    public void givenSavedEmployee_whenFindByIdRepeatedly_thenServedFromTheSecondLevelCache(){
+
+        //when - action or behaviour that we are going to test
+        for (int i = 0; i < 3; i++){
+            assertThat(employeeRepository.findById(employee.getId())).isPresent();
+        }
+
+        //then - verify the result or output using assert statements
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(HibernateCacheConfig.EMPLOYEE_REGION);
+        assertThat(region.getHitCount()).isEqualTo(3);
+        assertThat(region.getMissCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    public void givenUpdatedEmployee_whenFindByEmail_thenCachedQueryIsInvalidated(){
+
+        //given - precondition or setup
+        employeeRepository.findByEmail("ramesh@gmail.com");
+        employeeRepository.findByEmail("ramesh@gmail.com");
+
+        long hits = statistics.getQueryCacheHitCount();
+        long misses = statistics.getQueryCacheMissCount();
+
+        //when - action or behaviour that we are going to test
+        employeeService.patchEmployee(employee.getId(), Employee.builder().firstName("Ram").build());
+
+        //then - verify the result or output using assert statements
+        assertThat(hits).isEqualTo(1);
+        assertThat(misses).isEqualTo(1);
+        assertThat(employeeRepository.findByEmail("ramesh@gmail.com").get().getFirstName()).isEqualTo("Ram");
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(2);
+        assertThat(employeeRepository.findById(employee.getId()).get().getFirstName()).isEqualTo("Ram");
+    }
+
+    @Test
+    public void givenCachedEmployee_whenDeleteEmployee_thenNoLongerFound(){
+
+        //given - precondition or setup
+        employeeRepository.findById(employee.getId());
+        employeeRepository.findByEmail("ramesh@gmail.com");
+
+        //when - action or behaviour that we are going to test
+        employeeService.deleteEmployee(employee.getId());
+
+        //then - verify the result or output using assert statements
+        assertThat(employeeRepository.findById(employee.getId())).isEmpty();
+        assertThat(employeeRepository.findByEmail("ramesh@gmail.com")).isEmpty();
+    }
+
+    @Test
+    public void givenTwoCachedEmployees_whenDeleteOne_thenTheOtherIsStillACacheHit(){
+
+        //given - precondition or setup
+        Employee other = employeeService.saveEmployee(Employee.builder()
+                .firstName("John")
+                .lastName("Cena")
+                .email("cena@gmail.com")
+                .build());
+        employeeRepository.findById(employee.getId());
+        employeeRepository.findById(other.getId());
+
+        //when - action or behaviour that we are going to test
+        boolean deleted = employeeService.deleteEmployee(employee.getId());
+        statistics.clear();
+
+        //then - verify the result or output using assert statements
+        assertThat(deleted).isTrue();
+        assertThat(employeeRepository.findById(other.getId())).isPresent();
+        assertThat(employeeRepository.findById(employee.getId())).isEmpty();
+
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(HibernateCacheConfig.EMPLOYEE_REGION);
+        assertThat(region.getHitCount()).isEqualTo(1);
+        assertThat(region.getMissCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,69 @@
+package net.javaguides.springboot.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Metrics export is disabled in tests by default, @AutoConfigureMetrics turns the Prometheus registry on.
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+public class MetricsITests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void givenEmployeeRequests_whenScrapePrometheus_thenEveryLayerIsTimed() throws Exception {
+
+        //given - precondition or setup
+        mockMvc.perform(get("/api/employees")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/employees/{id}", 42L)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/employees/export")).andExpect(request().asyncStarted());
+
+        //when - action or behaviour that we are going to test
+        //then - verify the result or output using assert statements
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("uri=\"/api/employees/{id}\"")))
+                .andExpect(content().string(containsString("employee_service_seconds_bucket{")))
+                .andExpect(content().string(containsString("method=\"getEmployeesPage\"")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket{")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("employee_request_statements_count{method=\"GET\",uri=\"/api/employees/{id}\",}")))
+                // its statements run on another thread, a count of 0 would be wrong
+                .andExpect(content().string(not(containsString("employee_request_statements_count{method=\"GET\",uri=\"/api/employees/export\",}"))));
+    }
+
+    @Test
+    public void givenEmployeeRequests_whenReadHibernateEndpoint_thenStatisticsAreReported() throws Exception {
+
+        //given - precondition or setup
+        mockMvc.perform(get("/api/employees")).andExpect(status().isOk());
+
+        //when - action or behaviour that we are going to test
+        //then - verify the result or output using assert statements
+        mockMvc.perform(get("/actuator/hibernate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enabled", is(true)))
+                .andExpect(jsonPath("$.queries.executionCount", greaterThan(0)))
+                .andExpect(jsonPath("$.queries.executionMaxTimeMs").isNumber())
+                .andExpect(jsonPath("$.entities.loadCount").isNumber())
+                .andExpect(jsonPath("$.entities.fetchCount").isNumber())
+                .andExpect(jsonPath("$.secondLevelCache.hitRatio").isNumber());
+    }
+}
@@ -0,0 +1,183 @@
+package net.javaguides.springboot.integration;
+
+import net.javaguides.springboot.model.ReactiveEmployee;
+import net.javaguides.springboot.repository.ReactiveEmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+
+// The "reactive" profile: WebFlux on Netty and R2DBC on the H2 database of application-reactive.properties.
+// Same scenarios as EmployeeControllerITests, the contract of both stacks is the same.
+// The test context picks its web application type before profiles are read, hence the property here as well.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles("reactive")
+public class ReactiveEmployeeControllerITests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveEmployeeRepository employeeRepository;
+
+    @BeforeEach
+    public void setup(){
+        employeeRepository.deleteAll().block();
+    }
+
+    private ReactiveEmployee create(String firstName, String lastName, String email){
+        return webTestClient.post().uri("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ReactiveEmployee.builder().firstName(firstName).lastName(lastName).email(email).build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ReactiveEmployee.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Test
+    public void givenEmployeeObject_whenCreateEmployee_thenReturnSavedEmployee(){
+
+        //given - precondition or setup
+        ReactiveEmployee employee = ReactiveEmployee.builder()
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("ramesh@gmail.com")
+                .build();
+
+        //when - action or behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.post().uri("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange();
+
+        //then - verify the result or output using assert statements
+        response.expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isNumber()
+                .jsonPath("$.firstName").isEqualTo("Ramesh")
+                .jsonPath("$.email").isEqualTo("ramesh@gmail.com")
+                .jsonPath("$.version").isEqualTo(0);
+    }
+
+    @Test
+    public void givenExistingEmail_whenCreateEmployee_thenReturn409(){
+
+        //given - precondition or setup
+        create("Ramesh", "Fadatare", "ramesh@gmail.com");
+
+        //when - action or behaviour that we are going to test
+        //then - verify the output
+        webTestClient.post().uri("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ReactiveEmployee.builder().firstName("Tony").lastName("Stark").email("ramesh@gmail.com").build())
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    public void givenMoreEmployeesThanPageSize_whenGetAllEmployees_thenReturnPageAndNextLink(){
+
+        //given - precondition or setup
+        webTestClient.post().uri("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(
+                        ReactiveEmployee.builder().firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build(),
+                        ReactiveEmployee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build(),
+                        ReactiveEmployee.builder().firstName("John").lastName("Cena").email("cena@gmail.com").build()))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody().jsonPath("$.size()").isEqualTo(3);
+
+        //when - action or behaviour that we are going to test
+        //then - verify the output
+        webTestClient.get().uri("/api/employees?size=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.LINK, containsString("rel=\"next\""))
+                .expectBody()
+                .jsonPath("$.size()").isEqualTo(2)
+                .jsonPath("$[0].firstName").isEqualTo("Ramesh");
+    }
+
+    @Test
+    public void givenEmployees_whenSearchByName_thenReturnMatchingEmployees(){
+
+        //given - precondition or setup
+        create("Ramesh", "Fadatare", "ramesh@gmail.com");
+        create("Tony", "Stark", "tony@gmail.com");
+
+        //when - action or behaviour that we are going to test
+        //then - verify the output
+        webTestClient.get().uri("/api/employees/search?firstName=Tony&lastName=Stark")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.size()").isEqualTo(1)
+                .jsonPath("$[0].email").isEqualTo("tony@gmail.com");
+    }
+
+    @Test
+    public void givenEmployee_whenUpdateAndPatch_thenVersionIsChecked(){
+
+        //given - precondition or setup
+        ReactiveEmployee saved = create("Ramesh", "Fadatare", "ramesh@gmail.com");
+
+        //when - action or behaviour that we are going to test
+        webTestClient.put().uri("/api/employees/{id}", saved.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ReactiveEmployee.builder().firstName("Ram").lastName("Jadhav").email("ram@gmail.com").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo("Ram")
+                .jsonPath("$.version").isEqualTo(1);
+
+        //then - verify the output
+        webTestClient.patch().uri("/api/employees/{id}", saved.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("lastName", "Stale", "version", 0))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+
+        webTestClient.patch().uri("/api/employees/{id}", saved.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("lastName", "Patched", "version", 1))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo("Ram")
+                .jsonPath("$.lastName").value(is("Patched"));
+
+        webTestClient.put().uri("/api/employees/{id}", saved.getId() + 1000)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ReactiveEmployee.builder().firstName("Ram").lastName("Jadhav").email("ram@gmail.com").build())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void givenEmployee_whenDeleteTwice_thenReturn204And404(){
+
+        //given - precondition or setup
+        ReactiveEmployee saved = create("Ramesh", "Fadatare", "ramesh@gmail.com");
+
+        //when - action or behaviour that we are going to test
+        //then - verify the output
+        webTestClient.delete().uri("/api/employees/{id}", saved.getId()).exchange().expectStatus().isNoContent();
+        webTestClient.delete().uri("/api/employees/{id}", saved.getId()).exchange().expectStatus().isNotFound();
+        webTestClient.get().uri("/api/employees/{id}", saved.getId()).exchange().expectStatus().isNotFound();
+    }
+}
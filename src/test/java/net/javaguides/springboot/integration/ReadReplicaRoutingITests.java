@@ -0,0 +1,178 @@
+package net.javaguides.springboot.integration;
+
+import net.javaguides.springboot.config.CacheConfig;
+import net.javaguides.springboot.datasource.ReplicaLagMonitor;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two H2 databases: testdb is the primary (migrated by Flyway on startup), replica is migrated here and filled by hand,
+// so a row tells which database a read came from. Nothing replicates between them.
+@SpringBootTest(properties = {
+        "app.datasource.routing.enabled=true",
+        "app.datasource.replica.url=jdbc:h2:mem:replica;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=test",
+        "app.datasource.replica.password=test",
+        "app.datasource.routing.lag-query=select lag_seconds from replica_lag",
+        "app.datasource.routing.max-replica-lag-seconds=5",
+        // the scheduled check stays out of the way, the tests call check() themselves
+        "app.datasource.routing.lag-check-interval-ms=3600000"
+})
+public class ReadReplicaRoutingITests {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    public void setup(){
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+
+        Flyway.configure().dataSource(replicaDataSource).load().migrate();
+        replica.execute("create table if not exists replica_lag (lag_seconds bigint)");
+        replica.update("delete from replica_lag");
+        replica.update("insert into replica_lag (lag_seconds) values (0)");
+        replica.update("delete from employees");
+        employeeRepository.deleteAll();
+
+        replicaLagMonitor.check();
+    }
+
+    @Test
+    public void givenReplicaInSync_whenSaveAndSearch_thenWriteGoesToPrimaryAndReadToReplica(){
+
+        //given - precondition or setup
+        replica.update("insert into employees (id, first_name, last_name, email, version) values (900001, 'Ramesh', 'Fadatare', 'replica@gmail.com', 0)");
+
+        //when - action or behaviour that we are going to test
+        Employee saved = employeeService.saveEmployee(Employee.builder()
+                .firstName("Ramesh").lastName("Fadatare").email("primary@gmail.com").build());
+        List<Employee> found = employeeService.searchEmployees("Ramesh", "Fadatare");
+
+        //then - verify the result or output using assert statements
+        assertThat(replicaLagMonitor.isReplicaAvailable()).isTrue();
+        assertThat(primary.queryForObject("select count(*) from employees where id = ?", Long.class, saved.getId())).isEqualTo(1L);
+        assertThat(replica.queryForObject("select count(*) from employees where email = 'primary@gmail.com'", Long.class)).isZero();
+        assertThat(found).extracting(Employee::getEmail).containsExactly("replica@gmail.com");
+    }
+
+    @Test
+    public void givenLaggingReplica_whenSearch_thenReadFallsBackToPrimary(){
+
+        //given - precondition or setup
+        replica.update("insert into employees (id, first_name, last_name, email, version) values (900001, 'Ramesh', 'Fadatare', 'replica@gmail.com', 0)");
+        employeeService.saveEmployee(Employee.builder()
+                .firstName("Ramesh").lastName("Fadatare").email("primary@gmail.com").build());
+        replica.update("update replica_lag set lag_seconds = 60");
+        replicaLagMonitor.check();
+
+        //when - action or behaviour that we are going to test
+        List<Employee> found = employeeService.searchEmployees("Ramesh", "Fadatare");
+
+        //then - verify the result or output using assert statements
+        assertThat(replicaLagMonitor.isReplicaAvailable()).isFalse();
+        assertThat(found).extracting(Employee::getEmail).containsExactly("primary@gmail.com");
+    }
+
+    @Test
+    public void givenReplicaBackInSync_whenSearch_thenReadGoesToReplicaAgain(){
+
+        //given - precondition or setup
+        replica.update("insert into employees (id, first_name, last_name, email, version) values (900001, 'Ramesh', 'Fadatare', 'replica@gmail.com', 0)");
+        replica.update("update replica_lag set lag_seconds = null");
+        replicaLagMonitor.check();
+        assertThat(replicaLagMonitor.isReplicaAvailable()).isFalse();
+
+        //when - action or behaviour that we are going to test
+        replica.update("update replica_lag set lag_seconds = 1");
+        replicaLagMonitor.check();
+        List<Employee> found = employeeService.searchEmployees("Ramesh", "Fadatare");
+
+        //then - verify the result or output using assert statements
+        assertThat(replicaLagMonitor.isReplicaAvailable()).isTrue();
+        assertThat(found).extracting(Employee::getEmail).containsExactly("replica@gmail.com");
+    }
+
+    @Test
+    public void givenReplicaInSync_whenSearch_thenReplicaRowsAreNotPutIntoTheSecondLevelCache(){
+
+        //given - precondition or setup
+        replica.update("insert into employees (id, first_name, last_name, email, version) values (900001, 'Ramesh', 'Fadatare', 'replica@gmail.com', 0)");
+        employeeService.saveEmployee(Employee.builder()
+                .firstName("Ramesh").lastName("Fadatare").email("primary@gmail.com").build());
+
+        //when - action or behaviour that we are going to test
+        List<Employee> foundOnReplica = employeeService.searchEmployees("Ramesh", "Fadatare");
+        replica.update("update replica_lag set lag_seconds = 60");
+        replicaLagMonitor.check();
+        List<Employee> foundOnPrimary = employeeService.searchEmployees("Ramesh", "Fadatare");
+
+        //then - verify the result or output using assert statements
+        assertThat(foundOnReplica).extracting(Employee::getEmail).containsExactly("replica@gmail.com");
+        assertThat(entityManagerFactory.getCache().contains(Employee.class, 900001L)).isFalse();
+        // the replica's result was not put into the query cache either
+        assertThat(foundOnPrimary).extracting(Employee::getEmail).containsExactly("primary@gmail.com");
+    }
+
+    @Test
+    public void givenReplicaInSync_whenGetEmployeeById_thenReadFromPrimaryAndCached(){
+
+        //given - precondition or setup
+        Employee saved = employeeService.saveEmployee(Employee.builder()
+                .firstName("Ramesh").lastName("Fadatare").email("primary@gmail.com").build());
+        replica.update("insert into employees (id, first_name, last_name, email, version) values (?, 'Ramesh', 'Fadatare', 'replica@gmail.com', 0)",
+                saved.getId());
+        replica.update("insert into employees (id, first_name, last_name, email, version) values (900001, 'Tony', 'Stark', 'deleted@gmail.com', 0)");
+        cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE).clear();
+
+        //when - action or behaviour that we are going to test
+        Optional<Employee> found = employeeService.getEployeeById(saved.getId());
+        Optional<Employee> deleted = employeeService.getEployeeById(900001L);
+
+        //then - verify the result or output using assert statements
+        assertThat(replicaLagMonitor.isReplicaAvailable()).isTrue();
+        assertThat(found.get().getEmail()).isEqualTo("primary@gmail.com");
+        assertThat(deleted).isEmpty();
+        assertThat(cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE).get(saved.getId(), Employee.class).getEmail())
+                .isEqualTo("primary@gmail.com");
+        assertThat(cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE).get(900001L)).isNull();
+    }
+}
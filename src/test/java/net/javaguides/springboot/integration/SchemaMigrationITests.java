@@ -0,0 +1,74 @@
+package net.javaguides.springboot.integration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Upgrades of databases whose schema hibernate.ddl-auto=update built before Flyway, each on an H2
+// database of its own with the application's baseline settings.
+public class SchemaMigrationITests {
+
+    @Test
+    public void givenTableBuiltByDdlAutoWithoutVersion_whenMigrate_thenSchemaMatchesTheEntity(){
+
+        //given - precondition or setup
+        JdbcTemplate jdbcTemplate = database("ddl_auto_baseline");
+        jdbcTemplate.execute("create table employees (id bigint not null auto_increment, email varchar(255) not null, "
+                + "first_name varchar(255) not null, last_name varchar(255) not null, primary key (id))");
+        jdbcTemplate.update("insert into employees (first_name, last_name, email) values ('Ramesh', 'Fadatare', 'ramesh@gmail.com')");
+        jdbcTemplate.update("insert into employees (first_name, last_name, email) values ('Tony', 'Stark', 'tony@gmail.com')");
+
+        //when - action or behaviour that we are going to test
+        migrate(jdbcTemplate);
+
+        //then - verify the result or output using assert statements
+        assertThat(jdbcTemplate.queryForList("select version from employees", Long.class)).containsOnly(0L);
+        assertThat(jdbcTemplate.queryForObject("select next_val from employees_seq", Long.class)).isEqualTo(3);
+        assertThatThrownBy(() -> jdbcTemplate.update("insert into employees (id, first_name, last_name, email) "
+                + "values (3, 'Ramesh', 'Fadatare', 'ramesh@gmail.com')"))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("UK_EMPLOYEES_EMAIL");
+    }
+
+    @Test
+    public void givenTableWithVersionAndSequenceBehindTheIds_whenMigrate_thenOnlyTheSequenceMoves(){
+
+        //given - precondition or setup
+        JdbcTemplate jdbcTemplate = database("ddl_auto_pooled_lo");
+        jdbcTemplate.execute("create table employees (id bigint not null, email varchar(255) not null, "
+                + "first_name varchar(255) not null, last_name varchar(255) not null, version bigint not null, "
+                + "primary key (id), constraint uk_employees_email unique (email))");
+        jdbcTemplate.execute("create table employees_seq (next_val bigint)");
+        jdbcTemplate.update("insert into employees_seq values (1)");
+        jdbcTemplate.update("insert into employees values (40, 'ramesh@gmail.com', 'Ramesh', 'Fadatare', 7)");
+
+        //when - action or behaviour that we are going to test
+        migrate(jdbcTemplate);
+
+        //then - verify the result or output using assert statements
+        assertThat(jdbcTemplate.queryForObject("select version from employees", Long.class)).isEqualTo(7);
+        assertThat(jdbcTemplate.queryForObject("select next_val from employees_seq", Long.class)).isEqualTo(41);
+    }
+
+
+    private static JdbcTemplate database(String name){
+
+        return new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "test", "test"));
+    }
+
+    // As spring.flyway.baseline-on-migrate and baseline-version configure it.
+    private static void migrate(JdbcTemplate jdbcTemplate){
+
+        Flyway.configure()
+                .dataSource(jdbcTemplate.getDataSource())
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
+}
@@ -0,0 +1,85 @@
+package net.javaguides.springboot.integration;
+
+import net.javaguides.springboot.model.Employee;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A real Tomcat (MockMvc would run on the test thread) with app.threads.virtual.enabled=true.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.threads.virtual.enabled=true")
+@Import(VirtualThreadITests.ThreadProbeController.class)
+public class VirtualThreadITests {
+
+    @TestConfiguration
+    @RestController
+    static class ThreadProbeController {
+
+        @GetMapping("/test/thread")
+        public String thread(){
+            Thread thread = Thread.currentThread();
+            return thread.isVirtual() + " " + thread.getName();
+        }
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Test
+    public void givenVirtualThreadMode_whenRequest_thenHandledOnVirtualThread(){
+
+        //given - precondition or setup
+        //when - action or behaviour that we are going to test
+        String thread = restTemplate.getForObject("/test/thread", String.class);
+
+        //then - verify the result or output using assert statements
+        assertThat(thread).startsWith("true http-vt-");
+    }
+
+    @Test
+    public void givenVirtualThreadMode_whenAsyncTask_thenRunsOnVirtualThread() throws Exception {
+
+        //given - precondition or setup
+        //when - action or behaviour that we are going to test
+        boolean virtual = applicationTaskExecutor.submit(() -> Thread.currentThread().isVirtual()).get();
+
+        //then - verify the result or output using assert statements
+        assertThat(virtual).isTrue();
+    }
+
+    @Test
+    public void givenVirtualThreadMode_whenCreateAndGetEmployee_thenApiWorksUnchanged(){
+
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("virtual@gmail.com")
+                .build();
+
+        //when - action or behaviour that we are going to test
+        ResponseEntity<Employee> created = restTemplate.postForEntity("/api/employees", employee, Employee.class);
+        ResponseEntity<Employee> found = restTemplate.getForEntity("/api/employees/{id}", Employee.class, created.getBody().getId());
+
+        //then - verify the result or output using assert statements
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(found.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(found.getBody().getEmail()).isEqualTo("virtual@gmail.com");
+    }
+}
@@ -0,0 +1,85 @@
+package net.javaguides.springboot.limit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimiterTests {
+
+    // JUnit test for refusing requests over the limit
+    @DisplayName("JUnit test for refusing requests over the limit")
+    @Test
+    public void givenFullLimiter_whenTryAcquire_thenRefused(){
+
+        // given - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("read", 2, 1, 10);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        // when -  action or the behaviour that we are going test
+        boolean refused = !limiter.tryAcquire();
+        limiter.onIgnore();
+
+        // then - verify the output
+        assertThat(refused).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    // JUnit test for the limit following the latency
+    @DisplayName("JUnit test for the limit growing with flat latency and shrinking when latency rises")
+    @Test
+    public void givenLatencySamples_whenOnSuccess_thenLimitFollowsTheLatency(){
+
+        // given - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("read", 20, 4, 200);
+
+        // when -  action or the behaviour that we are going test
+        int grown = run(limiter, 50, TimeUnit.MILLISECONDS.toNanos(5));
+        int shrunk = run(limiter, 50, TimeUnit.MILLISECONDS.toNanos(100));
+
+        // then - verify the output
+        assertThat(grown).isGreaterThan(20);
+        assertThat(shrunk).isLessThan(grown / 2);
+        assertThat(shrunk).isGreaterThanOrEqualTo(4);
+    }
+
+    // JUnit test for backing off on failed requests
+    @DisplayName("JUnit test for backing off on failed requests")
+    @Test
+    public void givenFailedRequests_whenOnDropped_thenLimitDecreasesToTheMinimum(){
+
+        // given - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("write", 20, 2, 200);
+
+        // when -  action or the behaviour that we are going test
+        limiter.tryAcquire();
+        limiter.onDropped();
+        int afterOneFailure = limiter.getLimit();
+
+        for (int i = 0; i < 100; i++){
+            limiter.tryAcquire();
+            limiter.onDropped();
+        }
+
+        // then - verify the output
+        assertThat(afterOneFailure).isEqualTo(18);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+
+    // Samples taken at full load: as many requests in flight as the limit allows.
+    private static int run(AdaptiveConcurrencyLimiter limiter, int samples, long rttNanos){
+
+        for (int i = 0; i < samples; i++){
+            limiter.tryAcquire();
+            limiter.onSuccess(rttNanos, limiter.getLimit());
+        }
+
+        return limiter.getLimit();
+    }
+}
@@ -0,0 +1,61 @@
+package net.javaguides.springboot.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrencyLimitFilterTests {
+
+    private AdaptiveConcurrencyLimiter readLimiter;
+    private AdaptiveConcurrencyLimiter writeLimiter;
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    private void setup(){
+
+        readLimiter = new AdaptiveConcurrencyLimiter("read", 1, 1, 10);
+        writeLimiter = new AdaptiveConcurrencyLimiter("write", 1, 1, 10);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(readLimiter, writeLimiter, Set.of("/api/employees/export"), meterRegistry);
+    }
+
+    // JUnit test for shedding reads over the limit
+    @DisplayName("JUnit test for shedding reads over the limit while writes go through")
+    @Test
+    public void givenFullReadLimiter_whenRequests_thenReadsShedAndWritesPass() throws Exception {
+
+        // given - precondition or setup
+        readLimiter.tryAcquire();
+
+        // when -  action or the behaviour that we are going test
+        MockHttpServletResponse read = perform("GET", "/api/employees/1");
+        MockHttpServletResponse write = perform("POST", "/api/employees");
+        MockHttpServletResponse export = perform("GET", "/api/employees/export");
+
+        // then - verify the output
+        assertThat(read.getStatus()).isEqualTo(503);
+        assertThat(read.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(write.getStatus()).isEqualTo(200);
+        assertThat(export.getStatus()).isEqualTo(200);
+        assertThat(writeLimiter.getInFlight()).isZero();
+        assertThat(meterRegistry.get("employee.concurrency.rejected").tag("type", "read").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("employee.concurrency.limit").tag("type", "write").gauge().value()).isEqualTo(1);
+    }
+
+
+    private MockHttpServletResponse perform(String method, String uri) throws Exception {
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, uri), response, new MockFilterChain());
+        return response;
+    }
+}
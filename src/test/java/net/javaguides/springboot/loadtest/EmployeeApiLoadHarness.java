@@ -0,0 +1,36 @@
+package net.javaguides.springboot.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.nio.file.Paths;
+
+// Boots the application on H2 and a random port, like EmployeeControllerITests, and runs a
+// mixed CRUD workload against it. Not part of the default test run, start it with e.g.
+//
+//   mvn test -Dtest=EmployeeApiLoadHarness -Dloadtest.model=open -Dloadtest.rps=2000 -Dloadtest.duration=60
+//   mvn test -Dtest=EmployeeApiLoadHarness -Dloadtest.model=closed -Dloadtest.concurrency=64 \
+//            -Dloadtest.mix=read:90,create:10 -Dspring.datasource.hikari.maximum-pool-size=20
+//
+// Other settings: loadtest.warmup (s), loadtest.seed (employees created first), loadtest.maxInFlight.
+// The report is printed per endpoint; the full distributions are written to target/loadtest/*.hgrm.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "logging.level.root=WARN")
+public class EmployeeApiLoadHarness {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    public void runWorkload() throws Exception {
+
+        EmployeeLoadGenerator.Settings settings = EmployeeLoadGenerator.Settings.fromSystemProperties();
+
+        LoadReport report = new EmployeeLoadGenerator(URI.create("http://localhost:" + port), settings).run();
+
+        report.print(System.out, "employee API");
+        report.writeHistograms(Paths.get("target", "loadtest"), "employee-api");
+    }
+}
@@ -0,0 +1,394 @@
+package net.javaguides.springboot.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Drives a create/read/list/update/delete mix against /api/employees and records the
+// latency of every request in one HdrHistogram per operation.
+//
+// closed model: a fixed number of clients, each sends its next request when the previous one returned.
+// open model:   requests start at a fixed rate whatever the response times are; latency is measured
+//               from the intended start time, so a stalled server is not hidden (coordinated omission).
+public class EmployeeLoadGenerator {
+
+    public enum Operation { CREATE, READ, LIST, UPDATE, DELETE }
+
+    // Highest trackable latency, 1 minute in microseconds, with 3 significant digits.
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final URI baseUri;
+    private final Settings settings;
+    private final ExecutorService clientExecutor;
+    private final HttpClient client;
+
+    private final IdPool ids = new IdPool(100_000);
+    private final AtomicLong emails = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    public EmployeeLoadGenerator(URI baseUri, Settings settings) {
+        this.baseUri = baseUri;
+        this.settings = settings;
+        this.clientExecutor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(clientExecutor)
+                .build();
+
+        for (Operation operation : Operation.values()){
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    // One run per generator: the HttpClient and its threads are closed when it finishes.
+    public LoadReport run() throws InterruptedException {
+
+        try {
+            seed();
+
+            runPhase(settings.warmup);
+            stats.values().forEach(OperationStats::reset);
+            dropped.reset();
+
+            long start = System.nanoTime();
+            runPhase(settings.duration);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Map<Operation, LoadReport.Result> results = new EnumMap<>(Operation.class);
+            stats.forEach((operation, operationStats) -> results.put(operation, operationStats.result()));
+
+            return new LoadReport(settings.describe(), seconds, dropped.sum(), results);
+        } finally {
+            // Open model requests still in flight after the grace period are abandoned.
+            client.shutdownNow();
+            clientExecutor.shutdownNow();
+            clientExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private void runPhase(Duration duration) throws InterruptedException {
+
+        if (duration.isZero()){
+            return;
+        }
+
+        if (settings.openModel){
+            runOpen(duration);
+        } else {
+            runClosed(duration);
+        }
+    }
+
+    private void runClosed(Duration duration) throws InterruptedException {
+
+        long end = System.nanoTime() + duration.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(settings.concurrency);
+
+        for (int i = 0; i < settings.concurrency; i++){
+            clients.execute(() -> {
+                while (System.nanoTime() < end){
+                    Operation operation = settings.pick();
+                    long started = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = client.send(request(operation), HttpResponse.BodyHandlers.ofString());
+                        completed(operation, started, response, null);
+                    } catch (IOException ex){
+                        completed(operation, started, null, ex);
+                    } catch (InterruptedException ex){
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            });
+        }
+
+        clients.shutdown();
+        if (!clients.awaitTermination(duration.toMillis() + 60_000, TimeUnit.MILLISECONDS)){
+            clients.shutdownNow();
+        }
+    }
+
+    private void runOpen(Duration duration) throws InterruptedException {
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / settings.rps;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        for (long n = 0; ; n++){
+            long intended = start + n * interval;
+            if (intended >= end){
+                break;
+            }
+
+            long wait = intended - System.nanoTime();
+            if (wait > 0){
+                LockSupport.parkNanos(wait);
+            }
+
+            if (inFlight.get() >= settings.maxInFlight){
+                dropped.increment();
+                continue;
+            }
+
+            Operation operation = settings.pick();
+            inFlight.incrementAndGet();
+            client.sendAsync(request(operation), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, ex) -> {
+                        inFlight.decrementAndGet();
+                        completed(operation, intended, response, ex);
+                    });
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline){
+            Thread.sleep(10);
+        }
+    }
+
+    private HttpRequest request(Operation operation){
+
+        switch (operation){
+            case CREATE:
+                return json(HttpRequest.newBuilder(uri("")), "POST", newEmployee());
+            case READ:
+                return HttpRequest.newBuilder(uri("/" + ids.random())).GET().build();
+            case LIST:
+                return HttpRequest.newBuilder(uri("?size=50&after=" + ids.random())).GET().build();
+            case UPDATE:
+                return json(HttpRequest.newBuilder(uri("/" + ids.random())), "PATCH",
+                        "{\"firstName\":\"Updated" + ThreadLocalRandom.current().nextInt(1_000_000) + "\"}");
+            case DELETE:
+                return HttpRequest.newBuilder(uri("/" + ids.take())).DELETE().build();
+            default:
+                throw new IllegalArgumentException(operation.name());
+        }
+    }
+
+    private void completed(Operation operation, long startedNanos, HttpResponse<String> response, Throwable failure){
+
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedNanos);
+        OperationStats operationStats = stats.get(operation);
+        operationStats.histogram.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+
+        if (failure != null || response == null){
+            operationStats.failures.increment();
+            return;
+        }
+
+        int status = response.statusCode();
+        if (status < 300){
+            operationStats.success.increment();
+            if (operation == Operation.CREATE){
+                ids.add(idOf(response.body()));
+            }
+        } else if (status < 500){
+            operationStats.clientErrors.increment();
+        } else {
+            operationStats.serverErrors.increment();
+        }
+    }
+
+    // Creates settings.seed employees through the batch endpoint, so reads have something to find.
+    private void seed() throws InterruptedException {
+
+        for (int from = 0; from < settings.seed; from += 1000){
+            StringBuilder batch = new StringBuilder("[");
+            for (int i = from; i < Math.min(from + 1000, settings.seed); i++){
+                batch.append(i == from ? "" : ",").append(newEmployee());
+            }
+            batch.append(']');
+
+            try {
+                HttpResponse<String> response = client.send(json(HttpRequest.newBuilder(uri("/batch")), "POST", batch.toString()),
+                        HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 201){
+                    throw new IllegalStateException("Seeding failed with status " + response.statusCode() + ": " + response.body());
+                }
+                for (JsonNode employee : objectMapper.readTree(response.body())){
+                    ids.add(employee.get("id").asLong());
+                }
+            } catch (IOException ex){
+                throw new IllegalStateException("Seeding failed", ex);
+            }
+        }
+    }
+
+    private String newEmployee(){
+        long n = emails.incrementAndGet();
+        return "{\"firstName\":\"Load\",\"lastName\":\"Test" + (n % 1000) + "\",\"email\":\"load" + n + "-"
+                + System.nanoTime() + "@example.com\"}";
+    }
+
+    private URI uri(String path){
+        return URI.create(baseUri + "/api/employees" + path);
+    }
+
+    private static HttpRequest json(HttpRequest.Builder builder, String method, String body){
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static long idOf(String body){
+        try {
+            return objectMapper.readTree(body).get("id").asLong();
+        } catch (IOException ex){
+            return 0;
+        }
+    }
+
+
+    // Workload settings, read from -Dloadtest.* system properties.
+    public static class Settings {
+
+        private boolean openModel;
+        private int concurrency;
+        private int rps;
+        private int maxInFlight;
+        private int seed;
+        private Duration warmup;
+        private Duration duration;
+        private final Map<Operation, Integer> mix = new LinkedHashMap<>();
+        private int mixTotal;
+
+        public static Settings fromSystemProperties(){
+
+            Settings settings = new Settings();
+            settings.openModel = "open".equalsIgnoreCase(System.getProperty("loadtest.model", "closed"));
+            settings.concurrency = Integer.getInteger("loadtest.concurrency", 32);
+            settings.rps = Integer.getInteger("loadtest.rps", 500);
+            settings.maxInFlight = Integer.getInteger("loadtest.maxInFlight", 10_000);
+            settings.seed = Integer.getInteger("loadtest.seed", 1_000);
+            settings.warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 5));
+            settings.duration = Duration.ofSeconds(Integer.getInteger("loadtest.duration", 30));
+            settings.mix(System.getProperty("loadtest.mix", "read:70,list:5,create:10,update:10,delete:5"));
+            return settings;
+        }
+
+        public Settings openModel(int rps){
+            this.openModel = true;
+            this.rps = rps;
+            return this;
+        }
+
+        public Settings closedModel(int concurrency){
+            this.openModel = false;
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        // e.g. "read:70,list:5,create:10,update:10,delete:5"
+        public Settings mix(String mix){
+
+            this.mix.clear();
+            this.mixTotal = 0;
+
+            for (String entry : mix.split(",")){
+                String[] parts = entry.trim().split(":");
+                int weight = Integer.parseInt(parts[1].trim());
+                this.mix.put(Operation.valueOf(parts[0].trim().toUpperCase()), weight);
+                this.mixTotal += weight;
+            }
+
+            return this;
+        }
+
+        Operation pick(){
+
+            int ticket = ThreadLocalRandom.current().nextInt(mixTotal);
+
+            for (Map.Entry<Operation, Integer> entry : mix.entrySet()){
+                ticket -= entry.getValue();
+                if (ticket < 0){
+                    return entry.getKey();
+                }
+            }
+
+            throw new IllegalStateException("empty mix");
+        }
+
+        String describe(){
+            return (openModel ? "open model, " + rps + " req/s" : "closed model, " + concurrency + " clients")
+                    + ", " + duration.getSeconds() + " s after " + warmup.getSeconds() + " s warmup, mix " + mix;
+        }
+    }
+
+
+    private static class OperationStats {
+
+        private final Histogram histogram = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final LongAdder success = new LongAdder();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        void reset(){
+            histogram.reset();
+            success.reset();
+            clientErrors.reset();
+            serverErrors.reset();
+            failures.reset();
+        }
+
+        LoadReport.Result result(){
+            return new LoadReport.Result(histogram.copy(), success.sum(), clientErrors.sum(), serverErrors.sum(), failures.sum());
+        }
+    }
+
+
+    // Ring of recently created ids; reads and updates pick one at random, deletes take one out.
+    private static class IdPool {
+
+        private final AtomicLongArray slots;
+        private final AtomicLong next = new AtomicLong();
+
+        IdPool(int size) {
+            this.slots = new AtomicLongArray(size);
+        }
+
+        void add(long id){
+            if (id > 0){
+                slots.set((int) (next.getAndIncrement() % slots.length()), id);
+            }
+        }
+
+        long random(){
+            int filled = (int) Math.min(next.get(), slots.length());
+            long id = filled == 0 ? 0 : slots.get(ThreadLocalRandom.current().nextInt(filled));
+            return id > 0 ? id : 1;
+        }
+
+        long take(){
+            int filled = (int) Math.min(next.get(), slots.length());
+            long id = filled == 0 ? 0 : slots.getAndSet(ThreadLocalRandom.current().nextInt(filled), 0);
+            return id > 0 ? id : 1;
+        }
+    }
+}
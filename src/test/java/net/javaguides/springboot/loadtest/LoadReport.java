@@ -0,0 +1,93 @@
+package net.javaguides.springboot.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+// Per operation latency percentiles of one load-test run (histogram values are microseconds).
+public class LoadReport {
+
+    private final String description;
+    private final double seconds;
+    private final long dropped;
+    private final Map<EmployeeLoadGenerator.Operation, Result> results;
+
+    LoadReport(String description, double seconds, long dropped, Map<EmployeeLoadGenerator.Operation, Result> results) {
+        this.description = description;
+        this.seconds = seconds;
+        this.dropped = dropped;
+        this.results = results;
+    }
+
+    public void print(PrintStream out, String title){
+
+        out.printf("%n== %s: %s ==%n", title, description);
+        out.printf("%-8s %9s %9s %9s %7s %7s %7s %9s %9s %9s %9s %9s%n",
+                "op", "count", "req/s", "2xx", "4xx", "5xx", "err", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        long total = 0;
+        for (Map.Entry<EmployeeLoadGenerator.Operation, Result> entry : results.entrySet()){
+            Result result = entry.getValue();
+            Histogram histogram = result.histogram;
+            if (histogram.getTotalCount() == 0){
+                continue;
+            }
+            total += histogram.getTotalCount();
+            out.printf("%-8s %9d %9.0f %9d %7d %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey().name().toLowerCase(), histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                    result.success, result.clientErrors, result.serverErrors, result.failures,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        out.printf("total %d requests, %.0f req/s%s%n", total, total / seconds,
+                dropped > 0 ? ", " + dropped + " not sent (too many in flight)" : "");
+    }
+
+    public double throughput(){
+        return results.values().stream().mapToLong(result -> result.histogram.getTotalCount()).sum() / seconds;
+    }
+
+    // One HdrHistogram percentile distribution file per operation, e.g. for hdrhistogram.github.io/HdrHistogram/plotFiles.html
+    public void writeHistograms(Path directory, String prefix) throws IOException {
+
+        Files.createDirectories(directory);
+
+        for (Map.Entry<EmployeeLoadGenerator.Operation, Result> entry : results.entrySet()){
+            if (entry.getValue().histogram.getTotalCount() == 0){
+                continue;
+            }
+            Path file = directory.resolve(prefix + "-" + entry.getKey().name().toLowerCase() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))){
+                entry.getValue().histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private static double millis(long micros){
+        return micros / 1000.0;
+    }
+
+
+    static class Result {
+
+        private final Histogram histogram;
+        private final long success;
+        private final long clientErrors;
+        private final long serverErrors;
+        private final long failures;
+
+        Result(Histogram histogram, long success, long clientErrors, long serverErrors, long failures) {
+            this.histogram = histogram;
+            this.success = success;
+            this.clientErrors = clientErrors;
+            this.serverErrors = serverErrors;
+            this.failures = failures;
+        }
+    }
+}
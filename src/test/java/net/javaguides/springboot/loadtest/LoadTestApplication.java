@@ -0,0 +1,32 @@
+package net.javaguides.springboot.loadtest;
+
+import net.javaguides.springboot.SpringBootTestingApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Paths;
+
+// Starts the application on a random port with the given properties, runs one workload against it and
+// stops it again, for harnesses that compare configurations in a single JVM.
+class LoadTestApplication {
+
+    private LoadTestApplication() {
+    }
+
+    static LoadReport run(EmployeeLoadGenerator.Settings settings, String name, String... properties)
+            throws InterruptedException, IOException {
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN")
+                .properties(properties)
+                .run()){
+
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            LoadReport report = new EmployeeLoadGenerator(URI.create("http://localhost:" + port), settings).run();
+            report.writeHistograms(Paths.get("target", "loadtest"), name);
+            return report;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package net.javaguides.springboot.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+// Runs the same workload against the servlet/JPA stack (Tomcat) and the reactive profile (Netty + R2DBC),
+// one after the other in this JVM, and prints both reports. Both get the same number of database connections,
+// so the difference is the request handling. Not part of the default test run, start it with e.g.
+//
+//   mvn test -Dtest=ServletVsReactiveLoadHarness -Dloadtest.concurrency=2000 -Dloadtest.duration=60
+//
+// Defaults to 1000 concurrent clients in the closed model; all loadtest.* settings of EmployeeApiLoadHarness apply,
+// and -Dloadtest.connections sets both pool sizes (default 20). Against H2 in memory a query costs microseconds,
+// point spring.datasource.url / spring.r2dbc.url / spring.flyway.url at MySQL for realistic database latency.
+public class ServletVsReactiveLoadHarness {
+
+    @Test
+    public void compareStacks() throws Exception {
+
+        EmployeeLoadGenerator.Settings settings = EmployeeLoadGenerator.Settings.fromSystemProperties();
+        if (System.getProperty("loadtest.model") == null && System.getProperty("loadtest.concurrency") == null){
+            settings.closedModel(1_000);
+        }
+
+        int connections = Integer.getInteger("loadtest.connections", 20);
+
+        LoadReport servlet = LoadTestApplication.run(settings, "stack-servlet",
+                "spring.datasource.hikari.maximum-pool-size=" + connections);
+        LoadReport reactive = LoadTestApplication.run(settings, "stack-reactive",
+                "spring.profiles.active=reactive",
+                "spring.r2dbc.pool.initial-size=" + connections,
+                "spring.r2dbc.pool.max-size=" + connections);
+
+        servlet.print(System.out, "servlet (Tomcat + JPA)");
+        reactive.print(System.out, "reactive (Netty + R2DBC)");
+        System.out.printf("%nreactive / servlet throughput: %.2f%n", reactive.throughput() / servlet.throughput());
+    }
+}
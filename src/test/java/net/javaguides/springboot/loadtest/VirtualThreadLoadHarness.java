@@ -0,0 +1,35 @@
+package net.javaguides.springboot.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+// Runs the same workload against the servlet stack on Tomcat's platform thread pool and with
+// app.threads.virtual.enabled=true, one after the other in this JVM, and prints both reports.
+// Both get the same Hikari pool, which is what limits the database work in either mode.
+// Not part of the default test run, start it with e.g.
+//
+//   mvn test -Dtest=VirtualThreadLoadHarness -Dloadtest.concurrency=2000 -Dloadtest.duration=60
+//
+// Defaults to 1000 concurrent clients in the closed model; all loadtest.* settings of EmployeeApiLoadHarness apply,
+// -Dloadtest.connections sets the pool size (default 20) and -Dloadtest.tomcatThreads the platform pool (default 200).
+public class VirtualThreadLoadHarness {
+
+    @Test
+    public void compareThreadModes() throws Exception {
+
+        EmployeeLoadGenerator.Settings settings = EmployeeLoadGenerator.Settings.fromSystemProperties();
+        if (System.getProperty("loadtest.model") == null && System.getProperty("loadtest.concurrency") == null){
+            settings.closedModel(1_000);
+        }
+
+        String pool = "spring.datasource.hikari.maximum-pool-size=" + Integer.getInteger("loadtest.connections", 20);
+
+        LoadReport platform = LoadTestApplication.run(settings, "threads-platform", pool,
+                "server.tomcat.threads.max=" + Integer.getInteger("loadtest.tomcatThreads", 200));
+        LoadReport virtual = LoadTestApplication.run(settings, "threads-virtual", pool,
+                "app.threads.virtual.enabled=true");
+
+        platform.print(System.out, "platform threads (Tomcat pool)");
+        virtual.print(System.out, "virtual threads");
+        System.out.printf("%nvirtual / platform throughput: %.2f%n", virtual.throughput() / platform.throughput());
+    }
+}
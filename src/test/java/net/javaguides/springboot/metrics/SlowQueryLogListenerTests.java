@@ -0,0 +1,85 @@
+package net.javaguides.springboot.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(OutputCaptureExtension.class)
+public class SlowQueryLogListenerTests {
+
+    private static final String INSERT = "insert into employees (email, first_name, last_name, version, id) values (?, ?, ?, ?, ?)";
+
+    // JUnit test for a statement faster than the threshold
+    @DisplayName("JUnit test for a statement faster than the threshold")
+    @Test
+    public void givenFastStatement_whenAfterQuery_thenNothingIsLogged(CapturedOutput output) throws Exception {
+
+        // given - precondition or setup
+        SlowQueryLogListener listener = new SlowQueryLogListener(200);
+
+        // when -  action or the behaviour that we are going test
+        listener.afterQuery(execution(5, false), Collections.singletonList(insert(1)));
+
+        // then - verify the output
+        assertThat(output).doesNotContain("Slow query");
+    }
+
+    // JUnit test for a slow JDBC batch
+    @DisplayName("JUnit test for a slow JDBC batch")
+    @Test
+    public void givenSlowBatch_whenAfterQuery_thenStatementIsLoggedWithSummarizedParameters(CapturedOutput output) throws Exception {
+
+        // given - precondition or setup
+        SlowQueryLogListener listener = new SlowQueryLogListener(200);
+
+        // when -  action or the behaviour that we are going test
+        listener.afterQuery(execution(250, true), Collections.singletonList(insert(50)));
+
+        // then - verify the output
+        assertThat(output).contains("Slow query (250 ms >= 200 ms)");
+        assertThat(output).contains(INSERT);
+        assertThat(output).contains("user0@example.com");
+        assertThat(output).doesNotContain("user3@example.com");
+        assertThat(output).contains("(+47 more parameter sets)");
+        assertThat(output).contains("...(100 chars)");
+    }
+
+    private static ExecutionInfo execution(long elapsedMs, boolean batch) {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        execInfo.setElapsedTime(elapsedMs);
+        execInfo.setBatch(batch);
+        execInfo.setSuccess(true);
+        return execInfo;
+    }
+
+    private static QueryInfo insert(int rows) throws Exception {
+        Method setString = PreparedStatement.class.getMethod("setString", int.class, String.class);
+        Method setLong = PreparedStatement.class.getMethod("setLong", int.class, long.class);
+        String longName = String.join("", Collections.nCopies(100, "x"));
+
+        QueryInfo queryInfo = new QueryInfo(INSERT);
+        for (int i = 0; i < rows; i++){
+            List<ParameterSetOperation> parameters = new ArrayList<>();
+            parameters.add(new ParameterSetOperation(setString, new Object[]{1, "user" + i + "@example.com"}));
+            parameters.add(new ParameterSetOperation(setString, new Object[]{2, longName}));
+            parameters.add(new ParameterSetOperation(setString, new Object[]{3, "Doe"}));
+            parameters.add(new ParameterSetOperation(setLong, new Object[]{4, 0L}));
+            parameters.add(new ParameterSetOperation(setLong, new Object[]{5, (long) i}));
+            queryInfo.getParametersList().add(parameters);
+        }
+        return queryInfo;
+    }
+}
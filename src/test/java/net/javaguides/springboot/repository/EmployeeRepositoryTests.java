@@ -3,14 +3,21 @@ package net.javaguides.springboot.repository;
 import net.javaguides.springboot.model.Employee;
 //import org.assertj.core.api.Assertions;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @DataJpaTest
@@ -19,6 +26,9 @@ public class EmployeeRepositoryTests {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private Employee employee;
 
     @BeforeEach
@@ -90,6 +100,26 @@ public class EmployeeRepositoryTests {
     }
 
 
+    //JUnit test for the unique email index
+    @DisplayName("JUnit test for the unique email index")
+    @Test
+    public void givenExistingEmail_whenSaveAndFlush_thenThrowException(){
+
+        //given - precondition or setup
+        Employee duplicate = Employee.builder()
+                .firstName("Ram")
+                .lastName("Fada")
+                .email(employee.getEmail())
+                .build();
+
+        //when - action or the behaviour that we are going test
+        //then - verify the output
+        assertThatThrownBy(() -> employeeRepository.saveAndFlush(duplicate))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+    }
+
+
     //JUnit test for get employee by email operation
     @DisplayName("JUnit test for get employee by email operation")
     @Test
@@ -143,6 +173,25 @@ public class EmployeeRepositoryTests {
     }
 
 
+    //JUnit test for the optimistic locking version
+    @DisplayName("JUnit test for the optimistic locking version")
+    @Test
+    public void givenEployeeObject_whenUpdateEmployee_thenVersionIsIncremented(){
+
+        //given - precondition or setup
+        Long initialVersion = employee.getVersion();
+
+        //when - action or the behaviour that we are going test
+        employee.setFirstName("Ram");
+        Employee updatedEmployee = employeeRepository.saveAndFlush(employee);
+
+        //then - verify the output
+        assertThat(initialVersion).isNotNull();
+        assertThat(updatedEmployee.getVersion()).isEqualTo(initialVersion + 1);
+
+    }
+
+
     //JUnit test for delete employee operation.
     @DisplayName("JUnit test for delete employee operation")
     @Test
@@ -166,6 +215,46 @@ public class EmployeeRepositoryTests {
     }
 
 
+    //JUnit test for find by last name and first name with repeated names
+    @DisplayName("JUnit test for find by last name and first name with repeated names")
+    @Test
+    public void givenRepeatedName_whenFindByLastNameAndFirstName_thenReturnAllMatches(){
+
+        //given - precondition or setup
+        employeeRepository.save(Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("ramesh_2@gmail.com")
+                .build());
+
+        //when - action or the behaviour that we are going test
+        List<Employee> employees = employeeRepository.findByLastNameAndFirstName("Fadatare", "Ramesh");
+
+        //then - verify the output
+        assertThat(employees).hasSize(2);
+
+    }
+
+
+    //JUnit test for single statement delete
+    @DisplayName("JUnit test for single statement delete")
+    @Test
+    public void givenEmployeeId_whenDeleteEmployeeById_thenReturnDeletedRowCount(){
+
+        //given - precondition or setup
+        long empId = employee.getId();
+
+        //when - action or the behaviour that we are going test
+        int deleted = employeeRepository.deleteEmployee(empId, null);
+        int deletedAgain = employeeRepository.deleteEmployee(empId, null);
+
+        //then - verify the output
+        assertThat(deleted).isEqualTo(1);
+        assertThat(deletedAgain).isEqualTo(0);
+
+    }
+
+
     //JUnit test for custom query using JPQL with index parameters
     @DisplayName("JUnit test for custom query using JPQL with index parameters")
     @Test
@@ -243,6 +332,119 @@ public class EmployeeRepositoryTests {
 
     }
 
+    //JUnit test for keyset pagination query
+    @DisplayName("JUnit test for keyset pagination query")
+    @Test
+    public void givenEmployeeId_whenFindNextPage_thenReturnEmployeesAfterId(){
+
+        //given - precondition or setup
+        //seedEmployeeTable();
+        List<Employee> firstPage = employeeRepository.findNextPage(0L, PageRequest.of(0, 1));
+
+        //when - action or the behaviour that we are going test
+        List<Employee> secondPage = employeeRepository.findNextPage(firstPage.get(0).getId(), PageRequest.of(0, 1));
+
+        //then - verify the output
+        assertThat(firstPage).hasSize(1);
+        assertThat(secondPage).hasSize(1);
+        assertThat(secondPage.get(0).getId()).isGreaterThan(firstPage.get(0).getId());
+
+    }
+
+
+    //JUnit test for the version lookup and the conditional delete
+    @DisplayName("JUnit test for find version by id and delete by id and version")
+    @Test
+    public void givenEmployeeVersion_whenDeleteByIdAndVersion_thenOnlyDeleteAtThatVersion(){
+
+        //given - precondition or setup
+        long version = employeeRepository.findVersionById(employee.getId()).orElseThrow();
+
+        //when - action or the behaviour that we are going test
+        int staleDeleted = employeeRepository.deleteEmployee(employee.getId(), version + 1);
+        int deleted = employeeRepository.deleteEmployee(employee.getId(), version);
+
+        //then - verify the output
+        assertThat(staleDeleted).isZero();
+        assertThat(deleted).isEqualTo(1);
+        assertThat(employeeRepository.findVersionById(employee.getId())).isEmpty();
+
+    }
+
+
+    //JUnit test for the set-based bulk update and delete
+    @DisplayName("JUnit test for bulk update by email domain and bulk delete by ids")
+    @Test
+    public void givenEmailDomain_whenUpdateEmployeesAndDeleteByIds_thenChangeAllRowsInOneStatement(){
+
+        //given - precondition or setup
+        List<Long> ids = employeeRepository.findNextIdsByEmailLike("%@gmail.com", 0L, PageRequest.of(0, 10));
+        long version = employee.getVersion();
+
+        //when - action or the behaviour that we are going test
+        int updated = employeeRepository.updateEmployees(ids, "%@gmail.com", null, "Stark", "example.com", Instant.now());
+        entityManager.clear();
+        List<Employee> updatedEmployees = employeeRepository.findAllById(ids);
+        int deleted = employeeRepository.deleteEmployeesByIds(List.of(ids.get(0), -1L));
+
+        //then - verify the output
+        assertThat(ids).hasSize(2);
+        assertThat(updated).isEqualTo(2);
+        assertThat(updatedEmployees).extracting(Employee::getEmail)
+                .containsExactlyInAnyOrder("ramesh@example.com", "ramesh_1@example.com");
+        assertThat(updatedEmployees).extracting(Employee::getLastName).containsOnly("Stark");
+        assertThat(updatedEmployees).extracting(Employee::getFirstName).containsExactlyInAnyOrder("Ramesh", "Ramesh_1");
+        assertThat(updatedEmployees).extracting(Employee::getVersion).containsOnly(version + 1);
+        assertThat(deleted).isEqualTo(1);
+        assertThat(employeeRepository.findNextIdsByEmailLike("%@gmail.com", 0L, PageRequest.of(0, 10))).isEmpty();
+        assertThat(employeeRepository.count()).isEqualTo(1);
+
+    }
+
+
+    //JUnit test for the sparse fieldset queries
+    @DisplayName("JUnit test for find fields by id and next page of fields")
+    @Test
+    public void givenFields_whenFindFields_thenReturnOnlyThoseFieldsInOrder(){
+
+        //given - precondition or setup
+        List<String> fields = List.of("email", "id");
+
+        //when - action or the behaviour that we are going test
+        Optional<Map<String, Object>> employeeFields = employeeRepository.findFieldsById(employee.getId(), fields);
+        List<Map<String, Object>> page = employeeRepository.findNextPageFields(employee.getId(), 10, List.of("lastName"));
+
+        //then - verify the output
+        assertThat(employeeFields).isPresent();
+        assertThat(employeeFields.get()).containsOnlyKeys("email", "id");
+        assertThat(employeeFields.get().keySet()).containsExactly("email", "id");
+        assertThat(employeeFields.get().get("email")).isEqualTo(employee.getEmail());
+        assertThat(page).hasSize(1);
+        assertThat(page.get(0)).containsExactly(Map.entry("lastName", "Fadatare_1"));
+
+    }
+
+
+    //JUnit test for the streaming export query
+    @DisplayName("JUnit test for streaming all employees")
+    @Test
+    public void givenEmployees_whenStreamAll_thenConsumeDetachedEmployeesInIdOrder(){
+
+        //given - precondition or setup
+        List<Employee> consumed = new ArrayList<>();
+        List<Boolean> managed = new ArrayList<>();
+
+        //when - action or the behaviour that we are going test
+        long count = employeeRepository.streamAll(employee -> consumed.add(employee));
+        consumed.forEach(employee -> managed.add(entityManager.getEntityManager().contains(employee)));
+
+        //then - verify the output
+        assertThat(count).isEqualTo(2);
+        assertThat(consumed).extracting(Employee::getEmail).containsExactly("ramesh@gmail.com", "ramesh_1@gmail.com");
+        assertThat(consumed.get(1).getId()).isGreaterThan(consumed.get(0).getId());
+        assertThat(managed).containsOnly(false);
+
+    }
 
 
     // Insert some test only purpose registers on employee table.
@@ -0,0 +1,109 @@
+package net.javaguides.springboot.search;
+
+import net.javaguides.springboot.dto.EmployeeSuggestion;
+import net.javaguides.springboot.event.EmployeesChangedEvent;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+public class EmployeeSuggestIndexTests {
+
+    private EmployeeSuggestIndex employeeSuggestIndex;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    private void setup(){
+
+        List<Employee> employees = List.of(
+                employee(1L, "Ramesh", "Fadatare", "ramesh@gmail.com"),
+                employee(2L, "Tony", "Stark", "tony@gmail.com"),
+                employee(3L, "Tom", "Stark", "tom.stark@gmail.com"),
+                employee(4L, "Ramona", "Flowers", "ramona@gmail.com"));
+
+        EmployeeRepository employeeRepository = Mockito.mock(EmployeeRepository.class);
+        given(employeeRepository.streamAll(any())).willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            employees.forEach(consumer);
+            return (long) employees.size();
+        });
+
+        employeeSuggestIndex = new EmployeeSuggestIndex(employeeRepository, Mockito.mock(PlatformTransactionManager.class));
+        employeeSuggestIndex.rebuild();
+    }
+
+
+    //JUnit test for prefix suggestions
+    @DisplayName("JUnit test for prefix suggestions over names and emails")
+    @Test
+    public void givenPrefix_whenSuggest_thenReturnEmployeesStartingWithIt(){
+
+        //when - action or the behaviour that we are going test
+        List<EmployeeSuggestion> byFirstName = employeeSuggestIndex.suggest("Ram", 10);
+        List<EmployeeSuggestion> byEmail = employeeSuggestIndex.suggest("tom.s", 10);
+        List<EmployeeSuggestion> byBothNames = employeeSuggestIndex.suggest("stark to", 10);
+
+        //then - verify the output
+        assertThat(byFirstName).extracting(EmployeeSuggestion::getId).containsExactlyInAnyOrder(1L, 4L);
+        assertThat(byFirstName).extracting(EmployeeSuggestion::getDistance).containsOnly(0);
+        assertThat(byEmail).extracting(EmployeeSuggestion::getId).containsExactly(3L);
+        assertThat(byBothNames).extracting(EmployeeSuggestion::getId).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(employeeSuggestIndex.size()).isEqualTo(4);
+        assertThat(employeeSuggestIndex.estimatedBytes()).isPositive();
+    }
+
+
+    //JUnit test for suggestions with typos
+    @DisplayName("JUnit test for suggestions with typos")
+    @Test
+    public void givenQueryWithTypos_whenSuggest_thenReturnClosestEmployeesFirst(){
+
+        //when - action or the behaviour that we are going test
+        List<EmployeeSuggestion> oneTypo = employeeSuggestIndex.suggest("rmaesh", 10);
+        List<EmployeeSuggestion> missingLetter = employeeSuggestIndex.suggest("fadtare", 10);
+        List<EmployeeSuggestion> tooShort = employeeSuggestIndex.suggest("tx", 10);
+
+        //then - verify the output
+        assertThat(oneTypo).extracting(EmployeeSuggestion::getId).containsExactly(1L);
+        assertThat(oneTypo.get(0).getDistance()).isEqualTo(2);
+        assertThat(missingLetter).extracting(EmployeeSuggestion::getId).containsExactly(1L);
+        assertThat(missingLetter.get(0).getDistance()).isEqualTo(1);
+        assertThat(tooShort).isEmpty();
+    }
+
+
+    //JUnit test for keeping the index in sync with saves and deletes
+    @DisplayName("JUnit test for keeping the suggest index in sync with saves and deletes")
+    @Test
+    public void givenChangedEmployees_whenSuggest_thenReturnTheCurrentState(){
+
+        //given - precondition or setup
+        employeeSuggestIndex.onEmployeesChanged(EmployeesChangedEvent.saved(List.of(
+                employee(1L, "Suresh", "Fadatare", "suresh@gmail.com"),
+                employee(5L, "Ramu", "Kaka", "ramu@gmail.com"))));
+        employeeSuggestIndex.onEmployeesChanged(EmployeesChangedEvent.deleted(4L));
+
+        //when - action or the behaviour that we are going test
+        List<EmployeeSuggestion> suggestions = employeeSuggestIndex.suggest("ram", 10);
+
+        //then - verify the output
+        assertThat(suggestions).extracting(EmployeeSuggestion::getId).containsExactly(5L);
+        assertThat(employeeSuggestIndex.suggest("sures", 10)).extracting(EmployeeSuggestion::getId).containsExactly(1L);
+        assertThat(employeeSuggestIndex.size()).isEqualTo(4);
+    }
+
+
+    private static Employee employee(long id, String firstName, String lastName, String email){
+        return Employee.builder().id(id).firstName(firstName).lastName(lastName).email(email).build();
+    }
+}
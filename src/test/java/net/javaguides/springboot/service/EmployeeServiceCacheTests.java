@@ -0,0 +1,141 @@
+package net.javaguides.springboot.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import net.javaguides.springboot.config.CacheConfig;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+// Runs the real EmployeeService proxy with a mocked repository to count database round trips.
+@SpringBootTest
+public class EmployeeServiceCacheTests {
+
+    @MockBean
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Employee employee;
+
+    @BeforeEach
+    private void setup(){
+
+        cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE).clear();
+
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("ramesh@gmail.com")
+                .build();
+    }
+
+
+    //JUnit test for get employee by id served from the cache
+    @DisplayName("JUnit test for get employee by id served from the cache")
+    @Test
+    public void givenCachedEmployee_whenGetEployeeById_thenRepositoryIsCalledOnce(){
+
+        //given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        CacheStats before = stats();
+
+        //when - action or the behaviour that we are going test
+        employeeService.getEployeeById(1L);
+        Optional<Employee> cachedEmployee = employeeService.getEployeeById(1L);
+
+        //then - verify the output
+        assertThat(cachedEmployee).contains(employee);
+        verify(employeeRepository, times(1)).findById(1L);
+        assertThat(stats().minus(before).hitCount()).isEqualTo(1);
+        assertThat(stats().minus(before).missCount()).isEqualTo(1);
+    }
+
+
+    //JUnit test for get employee by id with a missing employee
+    @DisplayName("JUnit test for get employee by id with a missing employee")
+    @Test
+    public void givenMissingEmployee_whenGetEployeeById_thenMissIsNotCached(){
+
+        //given - precondition or setup
+        given(employeeRepository.findById(2L)).willReturn(Optional.empty());
+
+        //when - action or the behaviour that we are going test
+        employeeService.getEployeeById(2L);
+        Optional<Employee> missingEmployee = employeeService.getEployeeById(2L);
+
+        //then - verify the output
+        assertThat(missingEmployee).isEmpty();
+        verify(employeeRepository, times(2)).findById(2L);
+    }
+
+
+    //JUnit test for update employee refreshing the cache
+    @DisplayName("JUnit test for update employee refreshing the cache")
+    @Test
+    public void givenCachedEmployee_whenUpdateEmployee_thenCacheIsRefreshed(){
+
+        //given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        employeeService.getEployeeById(1L);
+
+        Employee updatedEmployee = Employee.builder()
+                .id(1L)
+                .firstName("Ram")
+                .lastName("Fada")
+                .email("ram@gmail.com")
+                .build();
+        given(employeeRepository.saveAndFlush(updatedEmployee)).willReturn(updatedEmployee);
+
+        //when - action or the behaviour that we are going test
+        employeeService.updateEmployee(updatedEmployee);
+        Optional<Employee> cachedEmployee = employeeService.getEployeeById(1L);
+
+        //then - verify the output
+        assertThat(cachedEmployee).contains(updatedEmployee);
+        verify(employeeRepository, times(1)).findById(1L);
+    }
+
+
+    //JUnit test for delete employee evicting the cache
+    @DisplayName("JUnit test for delete employee evicting the cache")
+    @Test
+    public void givenCachedEmployee_whenDeleteEmployee_thenCacheIsEvicted(){
+
+        //given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        employeeService.getEployeeById(1L);
+
+        //when - action or the behaviour that we are going test
+        employeeService.deleteEmployee(1L);
+        given(employeeRepository.findById(1L)).willReturn(Optional.empty());
+        Optional<Employee> deletedEmployee = employeeService.getEployeeById(1L);
+
+        //then - verify the output
+        assertThat(deletedEmployee).isEmpty();
+        verify(employeeRepository, times(2)).findById(1L);
+    }
+
+
+    private CacheStats stats(){
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE);
+        return cache.getNativeCache().stats();
+    }
+}
@@ -1,6 +1,11 @@
 package net.javaguides.springboot.service;
 
-import net.javaguides.springboot.exception.ResourceNotFoundException;
+import net.javaguides.springboot.dto.EmployeeBatch;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.event.EmployeesChangedEvent;
+import net.javaguides.springboot.exception.PreconditionFailedException;
+import net.javaguides.springboot.exception.ResourceAlreadyExistsException;
+import net.javaguides.springboot.exception.VersionConflictException;
 import net.javaguides.springboot.model.Employee;
 import net.javaguides.springboot.repository.EmployeeRepository;
 import net.javaguides.springboot.service.impl.EmployeeServiceImpl;
@@ -15,16 +20,24 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.*;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.internal.stubbing.answers.DoesNothing;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import java.sql.SQLException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -37,6 +50,8 @@ public class EmployeeServiceTests_MockAnnotations {
 
     @Mock
     private EmployeeRepository employeeRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
@@ -58,8 +73,7 @@ public class EmployeeServiceTests_MockAnnotations {
     public void givenEmployeeObject_whenSave_thenReturnSavedEmployee(){
 
         //given - precondition or setup
-        given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.empty());
-        given(employeeRepository.save(employee)).willReturn(employee);
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
 
         // when - action or the behavior that we are going to test
 
@@ -67,6 +81,7 @@ public class EmployeeServiceTests_MockAnnotations {
 
         // then - verify the output
         assertThat(savedEmployee).isNotNull();
+        verify(employeeRepository, never()).findByEmail(anyString());
     }
 
 
@@ -76,15 +91,94 @@ public class EmployeeServiceTests_MockAnnotations {
     public void givenExistingEmail_whenSave_thenThrowException(){
 
         //given - precondition or setup
-        given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.of(employee));
+        given(employeeRepository.saveAndFlush(employee)).willThrow(duplicateEmailViolation());
+
+        //when - action or the behaviour that we are going test
+        Assertions.assertThrows(ResourceAlreadyExistsException.class, () -> {
+            employeeService.saveEmployee(employee);
+        });
+
+        //then - verify the output
+        verify(employeeRepository, times(1)).saveAndFlush(employee);
+    }
+
+
+    //JUnit test for save employee operation with another constraint violation
+    @DisplayName("JUnit test for save employee operation with another constraint violation")
+    @Test
+    public void givenOtherConstraintViolation_whenSave_thenRethrowException(){
+
+        //given - precondition or setup
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("not null",
+                new ConstraintViolationException("not null", new SQLException(), null));
+        given(employeeRepository.saveAndFlush(employee)).willThrow(violation);
 
         //when - action or the behaviour that we are going test
-        Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+        DataIntegrityViolationException thrown = Assertions.assertThrows(DataIntegrityViolationException.class, () -> {
             employeeService.saveEmployee(employee);
         });
 
         //then - verify the output
-        verify(employeeRepository, never()).save(any(Employee.class));
+        assertThat(thrown).isSameAs(violation);
+    }
+
+
+    //JUnit test for save employees in batch
+    @DisplayName("JUnit test for save employees in batch")
+    @Test
+    public void givenEmployeesList_whenSaveEmployees_thenReturnSavedEmployees(){
+
+        //given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("Miguel")
+                .lastName("Diaz")
+                .email("libypur@gmail.com")
+                .build();
+
+        List<Employee> employees = List.of(employee, employee1);
+
+        given(employeeRepository.saveAll(employees)).willReturn(employees);
+
+        //when - action or the behaviour that we are going test
+        List<Employee> savedEmployees = employeeService.saveEmployees(employees);
+
+        //then - verify the output
+        assertThat(savedEmployees).hasSize(2);
+        verify(employeeRepository, times(1)).flush();
+
+    }
+
+
+    //JUnit test for save employees in batch with an existing email
+    @DisplayName("JUnit test for save employees in batch with an existing email")
+    @Test
+    public void givenExistingEmail_whenSaveEmployees_thenThrowException(){
+
+        //given - precondition or setup
+        willThrow(duplicateEmailViolation()).given(employeeRepository).flush();
+
+        //when - action or the behaviour that we are going test
+        Assertions.assertThrows(ResourceAlreadyExistsException.class, () -> {
+            employeeService.saveEmployees(List.of(employee));
+        });
+
+        //then - verify the output
+        verify(employeeRepository, times(1)).saveAll(anyList());
+    }
+
+
+    //JUnit test for save employees in batch with a repeated email
+    @DisplayName("JUnit test for save employees in batch with a repeated email")
+    @Test
+    public void givenRepeatedEmail_whenSaveEmployees_thenThrowException(){
+
+        //when - action or the behaviour that we are going test
+        Assertions.assertThrows(ResourceAlreadyExistsException.class, () -> {
+            employeeService.saveEmployees(List.of(employee, employee));
+        });
+
+        //then - verify the output
+        verify(employeeRepository, never()).saveAll(anyList());
     }
 
 
@@ -132,6 +226,49 @@ public class EmployeeServiceTests_MockAnnotations {
     }
 
 
+    //JUnit test for get employees page
+    @DisplayName("JUnit test for get employees page")
+    @Test
+    public void givenMoreEmployeesThanPageSize_whenGetEmployeesPage_thenReturnNextCursor(){
+
+        //given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .id(2L)
+                .firstName("Miguel")
+                .lastName("Diaz")
+                .email("libypur@gmail.com")
+                .build();
+
+        given(employeeRepository.findNextPage(0L, PageRequest.of(0, 2))).willReturn(List.of(employee, employee1));
+
+        //when - action or the behaviour that we are going test
+        EmployeePage page = employeeService.getEmployeesPage(0L, 1);
+
+        //then - verify the output
+        assertThat(page.getEmployees()).containsExactly(employee);
+        assertThat(page.getNextCursor()).isEqualTo(1L);
+
+    }
+
+
+    //JUnit test for get employees page (last page)
+    @DisplayName("JUnit test for get employees page (last page)")
+    @Test
+    public void givenFewerEmployeesThanPageSize_whenGetEmployeesPage_thenReturnNoNextCursor(){
+
+        //given - precondition or setup
+        given(employeeRepository.findNextPage(0L, PageRequest.of(0, 11))).willReturn(List.of(employee));
+
+        //when - action or the behaviour that we are going test
+        EmployeePage page = employeeService.getEmployeesPage(0L, 10);
+
+        //then - verify the output
+        assertThat(page.getEmployees()).containsExactly(employee);
+        assertThat(page.getNextCursor()).isNull();
+
+    }
+
+
     //JUnit test for get employee by id method
     @DisplayName("JUnit test for get employee by id method")
     @Test
@@ -150,13 +287,39 @@ public class EmployeeServiceTests_MockAnnotations {
     }
 
 
+    //JUnit test for get employees by ids method
+    @DisplayName("JUnit test for get employees by ids method")
+    @Test
+    public void givenEmployeeIds_whenGetEmployeesByIds_thenReturnEmployeesInRequestOrderAndMissingIds(){
+
+        //given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .id(2L)
+                .firstName("Tony")
+                .lastName("Stark")
+                .email("tony@gmail.com")
+                .build();
+
+        given(employeeRepository.findAllById(List.of(2L, 5L, 1L))).willReturn(List.of(employee, employee1));
+
+        //when - action or the behaviour that we are going test
+        EmployeeBatch batch = employeeService.getEmployeesByIds(List.of(2L, 5L, 1L, 2L));
+
+        //then - verify the output
+        assertThat(batch.getEmployees()).extracting(Employee::getId).containsExactly(2L, 1L);
+        assertThat(batch.getMissingIds()).containsExactly(5L);
+        verify(employeeRepository, times(1)).findAllById(anyList());
+
+    }
+
+
     //JUnit test for update employee operation
     @DisplayName("JUnit test for update employee operation")
     @Test
     public void givenEmployeeObject_whenUpdateEmployee_thenReturnUpdatedEmployee(){
 
         //given - precondition or setup
-        given(employeeRepository.save(employee)).willReturn(employee);
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
         employee.setEmail("ram@gmail.com");
         employee.setFirstName("Ram");
 
@@ -172,6 +335,116 @@ public class EmployeeServiceTests_MockAnnotations {
     }
 
 
+    //JUnit test for update employee by id operation with the stored version
+    @DisplayName("JUnit test for update employee by id operation with the stored version")
+    @Test
+    public void givenStoredVersion_whenUpdateEmployeeById_thenReplaceTheFields(){
+
+        //given - precondition or setup
+        employee.setVersion(2L);
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
+
+        Employee changes = Employee.builder().firstName("Ram").lastName("Fada").email("ram@gmail.com").version(0L).build();
+
+        //when - action or the behaviour that we are going test
+        Employee updatedEmployee = employeeService.updateEmployee(1L, changes, List.of(1L, 2L)).get();
+
+        //then - verify the output
+        assertThat(updatedEmployee.getFirstName()).isEqualTo("Ram");
+        assertThat(updatedEmployee.getLastName()).isEqualTo("Fada");
+        assertThat(updatedEmployee.getEmail()).isEqualTo("ram@gmail.com");
+        assertThat(updatedEmployee.getVersion()).isEqualTo(2L);
+
+    }
+
+
+    //JUnit test for update employee by id operation with another version
+    @DisplayName("JUnit test for update employee by id operation with another version")
+    @Test
+    public void givenOtherVersion_whenUpdateEmployeeById_thenThrowException(){
+
+        //given - precondition or setup
+        employee.setVersion(3L);
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+
+        Employee changes = Employee.builder().firstName("Ram").lastName("Fada").email("ram@gmail.com").build();
+
+        //when - action or the behaviour that we are going test
+        Assertions.assertThrows(PreconditionFailedException.class, () -> {
+            employeeService.updateEmployee(1L, changes, List.of(2L));
+        });
+
+        //then - verify the output
+        verify(employeeRepository, never()).saveAndFlush(any(Employee.class));
+        assertThat(employee.getFirstName()).isEqualTo("Ramesh");
+
+    }
+
+
+    //JUnit test for patch employee operation
+    @DisplayName("JUnit test for patch employee operation")
+    @Test
+    public void givenChangedFields_whenPatchEmployee_thenOnlyThoseFieldsChange(){
+
+        //given - precondition or setup
+        employee.setVersion(1L);
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
+
+        Employee changes = Employee.builder().email("ram@gmail.com").version(1L).build();
+
+        //when - action or the behaviour that we are going test
+        Employee patchedEmployee = employeeService.patchEmployee(1L, changes).get();
+
+        //then - verify the output
+        assertThat(patchedEmployee.getEmail()).isEqualTo("ram@gmail.com");
+        assertThat(patchedEmployee.getFirstName()).isEqualTo("Ramesh");
+        assertThat(patchedEmployee.getLastName()).isEqualTo("Fadatare");
+
+    }
+
+
+    //JUnit test for patch employee operation with a stale version
+    @DisplayName("JUnit test for patch employee operation with a stale version")
+    @Test
+    public void givenStaleVersion_whenPatchEmployee_thenThrowException(){
+
+        //given - precondition or setup
+        employee.setVersion(3L);
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+
+        Employee changes = Employee.builder().email("ram@gmail.com").version(2L).build();
+
+        //when - action or the behaviour that we are going test
+        Assertions.assertThrows(VersionConflictException.class, () -> {
+            employeeService.patchEmployee(1L, changes);
+        });
+
+        //then - verify the output
+        verify(employeeRepository, never()).saveAndFlush(any(Employee.class));
+        assertThat(employee.getEmail()).isEqualTo("ramesh@gmail.co");
+
+    }
+
+
+    //JUnit test for patch employee operation with a missing employee
+    @DisplayName("JUnit test for patch employee operation with a missing employee")
+    @Test
+    public void givenInvalidEmployeeId_whenPatchEmployee_thenReturnEmpty(){
+
+        //given - precondition or setup
+        given(employeeRepository.findById(5L)).willReturn(Optional.empty());
+
+        //when - action or the behaviour that we are going test
+        Optional<Employee> patchedEmployee = employeeService.patchEmployee(5L, employee);
+
+        //then - verify the output
+        assertThat(patchedEmployee).isEmpty();
+
+    }
+
+
     //JUnit test for delete employee operation
     @DisplayName("JUnit test for delete employee operation")
     @Test
@@ -180,15 +453,42 @@ public class EmployeeServiceTests_MockAnnotations {
         long employeeId = 1L;
 
         //given - precondition or setup
-        willDoNothing().given(employeeRepository).deleteById(employeeId);
+        given(employeeRepository.deleteEmployee(employeeId, null)).willReturn(1);
 
         //when - action or the behaviour that we are going test
-        employeeService.deleteEmployee(employeeId);
+        boolean deleted = employeeService.deleteEmployee(employeeId);
 
 
         //then - verify the output
-        verify(employeeRepository, times(1)).deleteById(employeeId);
+        assertThat(deleted).isTrue();
+        verify(employeeRepository, times(1)).deleteEmployee(employeeId, null);
+        verify(employeeRepository, never()).findById(employeeId);
+        verify(eventPublisher, times(1)).publishEvent(any(EmployeesChangedEvent.class));
+
+    }
+
+
+    //JUnit test for delete employee operation with a missing employee
+    @DisplayName("JUnit test for delete employee operation with a missing employee")
+    @Test
+    public void givenInvalidEmployeeId_whenDeleteEmployee_thenReturnFalse(){
+
+        //given - precondition or setup
+        given(employeeRepository.deleteEmployee(5L, null)).willReturn(0);
+
+        //when - action or the behaviour that we are going test
+        boolean deleted = employeeService.deleteEmployee(5L);
+
+        //then - verify the output
+        assertThat(deleted).isFalse();
+        verify(eventPublisher, never()).publishEvent(any(EmployeesChangedEvent.class));
+
+    }
+
 
+    private static DataIntegrityViolationException duplicateEmailViolation(){
+        return new DataIntegrityViolationException("duplicate email",
+                new ConstraintViolationException("duplicate email", new SQLException(), "PUBLIC.UK_EMPLOYEES_EMAIL_INDEX_8"));
     }
 
 }
@@ -0,0 +1,170 @@
+package net.javaguides.springboot.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.javaguides.springboot.dto.EmployeeCreateStatus;
+import net.javaguides.springboot.exception.InvalidEmployeeException;
+import net.javaguides.springboot.exception.QueueFullException;
+import net.javaguides.springboot.exception.ResourceAlreadyExistsException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.impl.EmployeeWriteBehindServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// The flusher thread is only started by start(), so the queue can be filled up first.
+public class EmployeeWriteBehindServiceTests {
+
+    private EmployeeService employeeService;
+    private SimpleMeterRegistry meterRegistry;
+    private EmployeeWriteBehindServiceImpl employeeWriteBehindService;
+
+    @BeforeEach
+    private void setup(){
+
+        employeeService = Mockito.mock(EmployeeService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        employeeWriteBehindService = new EmployeeWriteBehindServiceImpl(employeeService, meterRegistry, 2, 10, 10, 60);
+    }
+
+
+    //JUnit test for submitting employees to the write-behind queue
+    @DisplayName("JUnit test for write-behind submit with a repeated email and a full queue")
+    @Test
+    public void givenFullQueue_whenSubmit_thenThrowQueueFullException(){
+
+        //given - precondition or setup
+        EmployeeCreateStatus status = employeeWriteBehindService.submit(employee("ramesh@gmail.com"));
+        employeeWriteBehindService.submit(employee("tony@gmail.com"));
+
+        //when - action or the behaviour that we are going test
+        //then - verify the output
+        assertThat(status.getState()).isEqualTo(EmployeeCreateStatus.State.PENDING);
+        assertThatThrownBy(() -> employeeWriteBehindService.submit(employee("Ramesh@gmail.com")))
+                .isInstanceOf(ResourceAlreadyExistsException.class);
+        assertThatThrownBy(() -> employeeWriteBehindService.submit(employee("natasha@gmail.com")))
+                .isInstanceOf(QueueFullException.class);
+        assertThatThrownBy(() -> employeeWriteBehindService.submit(Employee.builder().firstName("Bruce").build()))
+                .isInstanceOf(InvalidEmployeeException.class);
+        assertThat(meterRegistry.get("employee.write-behind.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("employee.write-behind.queue.size").gauge().value()).isEqualTo(2);
+    }
+
+
+    //JUnit test for flushing the write-behind queue in one batch
+    @DisplayName("JUnit test for write-behind flush of the queued employees in one batch")
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenQueuedEmployees_whenFlushed_thenSavedInOneBatch() throws Exception {
+
+        //given - precondition or setup
+        AtomicLong ids = new AtomicLong();
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation ->
+                ((List<Employee>) invocation.getArgument(0)).stream()
+                        .peek(employee -> employee.setId(ids.incrementAndGet()))
+                        .collect(Collectors.toList()));
+
+        EmployeeCreateStatus ramesh = employeeWriteBehindService.submit(employee("ramesh@gmail.com"));
+        EmployeeCreateStatus tony = employeeWriteBehindService.submit(employee("tony@gmail.com"));
+
+        //when - action or the behaviour that we are going test
+        employeeWriteBehindService.start();
+        employeeWriteBehindService.stop();
+
+        //then - verify the output
+        verify(employeeService, times(1)).saveEmployees(anyList());
+        assertThat(employeeWriteBehindService.getStatus(ramesh.getId()).get().getEmployeeId()).isEqualTo(1L);
+        assertThat(employeeWriteBehindService.getStatus(tony.getId()).get().getState())
+                .isEqualTo(EmployeeCreateStatus.State.CREATED);
+
+        // the email is no longer reserved once it was flushed
+        employeeWriteBehindService.start();
+        assertThat(employeeWriteBehindService.submit(employee("ramesh@gmail.com")).getState())
+                .isEqualTo(EmployeeCreateStatus.State.PENDING);
+        employeeWriteBehindService.stop();
+    }
+
+
+    //JUnit test for flushing what is still queued when the flusher thread is interrupted
+    @DisplayName("JUnit test for write-behind flush of the queued employees after an interrupt")
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenQueuedEmployees_whenFlusherInterrupted_thenFlushedAndFlusherStops() throws Exception {
+
+        //given - precondition or setup
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> flusher = new AtomicReference<>();
+        AtomicLong ids = new AtomicLong();
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            flusher.set(Thread.currentThread());
+            flushing.countDown();
+            // like a JDBC call, the insert does not notice the interrupt
+            while (release.getCount() > 0){
+                Thread.onSpinWait();
+            }
+            return ((List<Employee>) invocation.getArgument(0)).stream()
+                    .peek(employee -> employee.setId(ids.incrementAndGet()))
+                    .collect(Collectors.toList());
+        });
+
+        employeeWriteBehindService.start();
+        EmployeeCreateStatus ramesh = employeeWriteBehindService.submit(employee("ramesh@gmail.com"));
+        assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        EmployeeCreateStatus tony = employeeWriteBehindService.submit(employee("tony@gmail.com"));
+        EmployeeCreateStatus natasha = employeeWriteBehindService.submit(employee("natasha@gmail.com"));
+
+        //when - action or the behaviour that we are going test
+        flusher.get().interrupt();
+        release.countDown();
+        flusher.get().join(5000);
+
+        //then - verify the output
+        assertThat(flusher.get().isAlive()).isFalse();
+        verify(employeeService, times(2)).saveEmployees(anyList());
+        assertThat(employeeWriteBehindService.getStatus(ramesh.getId()).get().getState())
+                .isEqualTo(EmployeeCreateStatus.State.CREATED);
+        assertThat(employeeWriteBehindService.getStatus(tony.getId()).get().getState())
+                .isEqualTo(EmployeeCreateStatus.State.CREATED);
+        assertThat(employeeWriteBehindService.getStatus(natasha.getId()).get().getState())
+                .isEqualTo(EmployeeCreateStatus.State.CREATED);
+    }
+
+
+    //JUnit test for submitting employees after the write-behind queue was stopped
+    @DisplayName("JUnit test for write-behind submit after stop")
+    @Test
+    public void givenStoppedQueue_whenSubmit_thenThrowQueueFullException() throws Exception {
+
+        //given - precondition or setup
+        employeeWriteBehindService.start();
+        employeeWriteBehindService.stop();
+
+        //when - action or the behaviour that we are going test
+        //then - verify the output
+        assertThatThrownBy(() -> employeeWriteBehindService.submit(employee("ramesh@gmail.com")))
+                .isInstanceOf(QueueFullException.class)
+                .hasMessageContaining("stopped");
+        assertThat(meterRegistry.get("employee.write-behind.queue.size").gauge().value()).isEqualTo(0);
+    }
+
+
+    private static Employee employee(String email){
+        return Employee.builder().firstName("Ramesh").lastName("Fadatare").email(email).build();
+    }
+}